@@ -85,7 +85,7 @@ const verticalScale = (size) => (screenHeight / 812) * size;
 const DRAWER_WIDTH = screenWidth * 0.75;
 
 // Módulo de permisos nativos
-const { PermissionsModule } = NativeModules;
+const { PermissionsModule, ChatWake } = NativeModules;
 
 // Función para solicitar permisos de pantalla completa
 const requestScreenPermissions = async () => {
@@ -227,6 +227,38 @@ const [showChatModal, setShowChatModal] = useState(false);
   useEffect(() => {
     console.log('🔍 DEBUG showChatModal cambió a:', showChatModal);
   }, [showChatModal]);
+
+  // Historial nativo de mensajes por viaje (ChatWake): al abrir el chat se pintan los mensajes
+  // que ya llegaron por FCM sin esperar a la red y luego se borran; también al terminar el viaje
+  const chatHistoryTripRef = useRef(null);
+  useEffect(() => {
+    if (!showChatModal || !tripRequest?.id || !ChatWake?.getRecentMessages) return;
+    const tripId = String(tripRequest.id);
+    ChatWake.getRecentMessages(tripId)
+      .then((recientes) => {
+        if (recientes?.length) {
+          setChatMessages((prev) => {
+            const ids = new Set(prev.map((m) => String(m.id)));
+            const nuevos = recientes
+              .filter((m) => m.messageId && !ids.has(String(m.messageId)))
+              .map((m) => ({
+                id: m.messageId,
+                message: m.message,
+                sender_type: m.senderType,
+                created_at: new Date(m.timestamp).toISOString(),
+              }));
+            return nuevos.length ? [...prev, ...nuevos] : prev;
+          });
+        }
+      })
+      .catch((e) => console.log('Error leyendo historial nativo del chat:', e))
+      .finally(() => ChatWake.clearRecentMessages(tripId));
+  }, [showChatModal, tripRequest?.id]);
+  useEffect(() => {
+    const previous = chatHistoryTripRef.current;
+    chatHistoryTripRef.current = tripRequest?.id ?? null;
+    if (previous && previous !== chatHistoryTripRef.current) ChatWake?.clearRecentMessages(String(previous));
+  }, [tripRequest?.id]);
   
   const [chatMessages, setChatMessages] = useState([]);
   const [chatInput, setChatInput] = useState('');
@@ -283,19 +315,13 @@ const [showChatModal, setShowChatModal] = useState(false);
 
   // Monitorear conexi�n a internet
   useEffect(() => {
-    const checkInternet = async () => {
-      try {
-        const response = await fetch('https://www.google.com', { method: 'HEAD', mode: 'no-cors' });
-        console.log('?? Internet disponible');
-        setIsConnected(true);
-      } catch (error) {
-        console.log('?? Sin acceso a internet');
-        setIsConnected(false);
-      }
-    };
-    checkInternet();
-    const interval = setInterval(checkInternet, 10000);
-    return () => clearInterval(interval);
+    // netinfo sondea la conectividad en nativo (con backoff y en pausa con la pantalla apagada)
+    const unsubscribe = NetInfo.addEventListener(state => {
+      const online = state.isConnected !== false && state.isInternetReachable !== false;
+      console.log(online ? '?? Internet disponible' : '?? Sin acceso a internet');
+      setIsConnected(online);
+    });
+    return unsubscribe;
   }, []);
 // Detectar cuando el usuario regresa a la app después de ir a Configuración
   useEffect(() => {
@@ -1702,12 +1728,30 @@ const closeChatModal = () => {
 
 // Listener para evento OPEN_CHAT_FROM_NATIVE (cuando pantalla estaba apagada)
     useEffect(() => {
-      const subscription = DeviceEventEmitter.addListener('OPEN_CHAT_FROM_NATIVE', (tripId) => {
-        console.log('📱 Evento OPEN_CHAT_FROM_NATIVE recibido, tripId:', tripId);
+      const openChatFromNative = (tripId) => {
         if (chatJustClosedRef.current) { console.log('Chat recien cerrado, ignorando'); return; }
         loadChatMessages();
         setShowChatModal(true);
+        ChatWake?.getMarkers().then((markers) => console.log('⏱️ Tiempo hasta el chat:', markers)).catch(() => {});
+      };
+
+      const subscription = DeviceEventEmitter.addListener('OPEN_CHAT_FROM_NATIVE', (tripId) => {
+        console.log('📱 Evento OPEN_CHAT_FROM_NATIVE recibido, tripId:', tripId);
+        // Consumirlo para que no se vuelva a abrir al montar
+        ChatWake?.consumePendingOpenChat().catch(() => {});
+        openChatFromNative(tripId);
       });
+
+      // Arranque en frío: el evento salió antes de que existiera este listener
+      ChatWake?.consumePendingOpenChat()
+        .then((pending) => {
+          if (pending) {
+            console.log('📱 Chat pendiente desde notificación, tripId:', pending.tripId);
+            openChatFromNative(pending.tripId);
+          }
+        })
+        .catch(() => {});
+
       return () => subscription.remove();
     }, []);
 
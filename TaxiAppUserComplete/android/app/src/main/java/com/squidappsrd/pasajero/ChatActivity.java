@@ -2,7 +2,6 @@ package com.squidappsrd.pasajero;
 
 import android.app.Activity;
 import android.app.KeyguardManager;
-import android.app.NotificationManager;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
@@ -10,9 +9,10 @@ import android.os.Bundle;
 import android.util.Log;
 import android.view.WindowManager;
 
+import com.taxiappusercomplete.ChatNotificationAggregator;
+
 public class ChatActivity extends Activity {
     private static final String TAG = "ChatActivity";
-    private static final int NOTIFICATION_ID = 2001;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -22,15 +22,13 @@ public class ChatActivity extends Activity {
 
         setupWindowFlags();
         
-        // Cancelar la notificación
-        NotificationManager notificationManager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
-        if (notificationManager != null) {
-            notificationManager.cancel(NOTIFICATION_ID);
-        }
-
         // Obtener datos del intent
         String tripId = getIntent().getStringExtra("tripId");
         String message = getIntent().getStringExtra("message");
+
+        // Cancelar la notificación del viaje y soltar la pantalla
+        ChatNotificationAggregator.cancel(this, tripId);
+        ChatNotificationAggregator.releaseScreen();
         
         Log.d(TAG, "📦 tripId: " + tripId + ", message: " + message);
 
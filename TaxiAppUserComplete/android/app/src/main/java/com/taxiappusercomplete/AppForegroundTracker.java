@@ -0,0 +1,58 @@
+package com.taxiappusercomplete;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+/**
+ * Estado de primer plano del proceso, al estilo de ProcessLifecycleOwner: se cuenta
+ * cuántas Activities están iniciadas en vez de recorrer getRunningAppProcesses()
+ * en cada mensaje FCM.
+ */
+public class AppForegroundTracker implements Application.ActivityLifecycleCallbacks {
+    private static final AppForegroundTracker INSTANCE = new AppForegroundTracker();
+    private static boolean installed = false;
+
+    private volatile int startedActivities = 0;
+
+    public static synchronized void install(Application application) {
+        if (installed) return;
+        installed = true;
+        application.registerActivityLifecycleCallbacks(INSTANCE);
+    }
+
+    public static boolean isForeground() {
+        return INSTANCE.startedActivities > 0;
+    }
+
+    @Override
+    public synchronized void onActivityStarted(Activity activity) {
+        startedActivities++;
+    }
+
+    @Override
+    public synchronized void onActivityStopped(Activity activity) {
+        // Un cambio de configuración detiene y reinicia la Activity: nunca bajar de 0
+        startedActivities = Math.max(0, startedActivities - 1);
+    }
+
+    @Override
+    public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+    }
+
+    @Override
+    public void onActivityResumed(Activity activity) {
+    }
+
+    @Override
+    public void onActivityPaused(Activity activity) {
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+    }
+
+    @Override
+    public void onActivityDestroyed(Activity activity) {
+    }
+}
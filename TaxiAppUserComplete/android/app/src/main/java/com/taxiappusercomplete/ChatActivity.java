@@ -16,15 +16,32 @@ import android.util.TypedValue;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.facebook.react.ReactApplication;
+import com.facebook.react.ReactInstanceEventListener;
+import com.facebook.react.ReactInstanceManager;
+import com.facebook.react.bridge.ReactContext;
+
 public class ChatActivity extends AppCompatActivity {
     private static final String TAG = "ChatActivity";
+    // Si React no arranca en este tiempo, abrir igual y que MainActivity espere
+    private static final long MAX_WAIT_MS = 5000;
+
+    private final android.os.Handler handler = new android.os.Handler(android.os.Looper.getMainLooper());
     private String tripId;
     private String message;
+    private TextView messageText;
+    private ReactInstanceManager reactInstanceManager;
+    private ReactInstanceEventListener reactListener;
+    private boolean opened = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         Log.d(TAG, "ChatActivity onCreate");
+        ChatWakePipeline.mark(ChatWakePipeline.CHAT_ACTIVITY_CREATED);
+
+        // La Activity ya enciende la pantalla por sí misma: el servicio puede terminar
+        stopService(new Intent(this, WakeScreenService.class));
 
         // Configurar para mostrar sobre lockscreen
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
@@ -47,8 +64,35 @@ public class ChatActivity extends AppCompatActivity {
         message = getIntent().getStringExtra("message");
         Log.d(TAG, "tripId: " + tripId + ", message: " + message);
 
-        // Crear UI programáticamente
-        createUI();
+        reactInstanceManager = ((ReactApplication) getApplication()).getReactNativeHost().getReactInstanceManager();
+
+        // Crear UI programáticamente (solo si hay que esperar a React)
+        if (reactInstanceManager.getCurrentReactContext() == null) {
+            createUI();
+        }
+        openWhenReactReady();
+    }
+
+    private void openWhenReactReady() {
+        if (reactInstanceManager.getCurrentReactContext() != null) {
+            ChatWakePipeline.mark(ChatWakePipeline.REACT_READY);
+            openMainApp();
+            return;
+        }
+
+        reactListener = new ReactInstanceEventListener() {
+            @Override
+            public void onReactContextInitialized(ReactContext context) {
+                ChatWakePipeline.mark(ChatWakePipeline.REACT_READY);
+                runOnUiThread(ChatActivity.this::openMainApp);
+            }
+        };
+        reactInstanceManager.addReactInstanceEventListener(reactListener);
+        // Arrancar React mientras se muestra la tarjeta, en vez de esperar a MainActivity
+        if (!reactInstanceManager.hasStartedCreatingInitialContext()) {
+            reactInstanceManager.createReactContextInBackground();
+        }
+        handler.postDelayed(this::openMainApp, MAX_WAIT_MS);
     }
 
     private void createUI() {
@@ -81,7 +125,7 @@ public class ChatActivity extends AppCompatActivity {
         cardLayout.setLayoutParams(cardParams);
 
         // Mensaje
-        TextView messageText = new TextView(this);
+        messageText = new TextView(this);
         messageText.setText(message != null ? message : "Nuevo mensaje");
         messageText.setTextColor(Color.WHITE);
         messageText.setTextSize(TypedValue.COMPLEX_UNIT_SP, 20);
@@ -100,15 +144,15 @@ public class ChatActivity extends AppCompatActivity {
         mainLayout.addView(loadingText);
 
         setContentView(mainLayout);
-
-        // Abrir chat automáticamente después de 1.5 segundos
-        new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() -> {
-            openMainApp();
-        }, 1500);
     }
 
     private void openMainApp() {
+        if (opened) return;
+        opened = true;
+        handler.removeCallbacksAndMessages(null);
+        removeReactListener();
         Log.d(TAG, "Abriendo MainActivity con chat");
+        ChatNotificationAggregator.cancel(this, tripId);
         Intent mainIntent = new Intent(this, MainActivity.class);
         mainIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
         mainIntent.putExtra("openChat", true);
@@ -124,6 +168,23 @@ public class ChatActivity extends AppCompatActivity {
         tripId = intent.getStringExtra("tripId");
         message = intent.getStringExtra("message");
         Log.d(TAG, "onNewIntent - tripId: " + tripId + ", message: " + message);
-        createUI();
+        // Mismo despertar: solo actualizar el texto mientras React termina de cargar
+        if (messageText != null) {
+            messageText.setText(message != null ? message : "Nuevo mensaje");
+        }
+    }
+
+    private void removeReactListener() {
+        if (reactInstanceManager != null && reactListener != null) {
+            reactInstanceManager.removeReactInstanceEventListener(reactListener);
+            reactListener = null;
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacksAndMessages(null);
+        removeReactListener();
+        super.onDestroy();
     }
 }
\ No newline at end of file
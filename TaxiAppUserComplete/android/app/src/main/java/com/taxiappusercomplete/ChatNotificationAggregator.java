@@ -0,0 +1,262 @@
+package com.taxiappusercomplete;
+
+import android.app.Activity;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.Person;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agrupa los mensajes de chat por viaje en una sola notificación MessagingStyle.
+ *
+ * - El primer mensaje de una ráfaga se publica al instante; los que llegan dentro de
+ *   BATCH_WINDOW_MS se juntan en una sola actualización (un solo sonido/vibración).
+ * - Un único WakeLock compartido, con vida máxima acotada, en vez de uno de 60s por mensaje.
+ * - Guarda los últimos MAX_MESSAGES mensajes por viaje para que JS los lea al abrir el chat
+ *   sin esperar a la red (ChatWake.getRecentMessages).
+ */
+public class ChatNotificationAggregator {
+    private static final String TAG = "ChatNotifAggregator";
+    private static final String PREFS = "chat_recent_messages";
+    private static final String NOTIFICATION_TAG_PREFIX = "chat_";
+
+    private static final long BATCH_WINDOW_MS = 1500;
+    private static final int MAX_MESSAGES = 20;
+    private static final long MAX_WAKE_MS = 30000;
+    // Historial de viajes que JS no borró (p. ej. la app nunca se abrió)
+    private static final long HISTORY_TTL_MS = 24 * 60 * 60 * 1000;
+
+    private static final Handler handler = new Handler(Looper.getMainLooper());
+    private static final Map<String, Long> lastPostByTrip = new HashMap<>();
+    private static final Map<String, PendingPost> pendingByTrip = new HashMap<>();
+    private static PowerManager.WakeLock wakeLock;
+
+    private static class PendingPost {
+        final Class<? extends Activity> target;
+        final String channelId;
+        final int smallIcon;
+        boolean fullScreen;
+
+        PendingPost(Class<? extends Activity> target, String channelId, int smallIcon, boolean fullScreen) {
+            this.target = target;
+            this.channelId = channelId;
+            this.smallIcon = smallIcon;
+            this.fullScreen = fullScreen;
+        }
+    }
+
+    /**
+     * Guarda el mensaje en el historial del viaje. Devuelve false si ya estaba (mismo
+     * messageId), para no volver a notificar ni despertar la pantalla.
+     */
+    public static synchronized boolean append(Context context, Map<String, String> data) {
+        String tripId = tripKey(data.get("tripId"));
+        SharedPreferences prefs = prefs(context);
+        try {
+            JSONArray messages = new JSONArray(prefs.getString(tripId, "[]"));
+            String messageId = data.get("messageId");
+            if (messageId != null) {
+                for (int i = 0; i < messages.length(); i++) {
+                    if (messageId.equals(messages.getJSONObject(i).optString("messageId", null))) return false;
+                }
+            }
+
+            JSONObject entry = new JSONObject();
+            entry.put("messageId", messageId);
+            entry.put("message", data.get("message"));
+            entry.put("senderType", data.get("senderType"));
+            entry.put("timestamp", System.currentTimeMillis());
+            messages.put(entry);
+
+            JSONArray trimmed = new JSONArray();
+            for (int i = Math.max(0, messages.length() - MAX_MESSAGES); i < messages.length(); i++) {
+                trimmed.put(messages.get(i));
+            }
+            SharedPreferences.Editor editor = prefs.edit().putString(tripId, trimmed.toString());
+            pruneStale(prefs, editor, tripId);
+            editor.apply();
+        } catch (Exception e) {
+            Log.e(TAG, "Error guardando mensaje: " + e.getMessage());
+        }
+        return true;
+    }
+
+    // Borra el historial de otros viajes cuyo último mensaje tiene más de HISTORY_TTL_MS
+    private static void pruneStale(SharedPreferences prefs, SharedPreferences.Editor editor, String keep) {
+        long cutoff = System.currentTimeMillis() - HISTORY_TTL_MS;
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            if (entry.getKey().equals(keep)) continue;
+            try {
+                JSONArray messages = new JSONArray(String.valueOf(entry.getValue()));
+                long last = messages.length() > 0
+                    ? messages.getJSONObject(messages.length() - 1).optLong("timestamp") : 0;
+                if (last < cutoff) editor.remove(entry.getKey());
+            } catch (Exception e) {
+                editor.remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Publica (o programa) la notificación del viaje. Si ya se publicó hace menos de
+     * BATCH_WINDOW_MS, se junta con la siguiente actualización.
+     */
+    public static synchronized void post(Context context, String tripId, Class<? extends Activity> target,
+                                         String channelId, int smallIcon, boolean fullScreen) {
+        Context appContext = context.getApplicationContext();
+        String key = tripKey(tripId);
+        long now = SystemClock.elapsedRealtime();
+
+        PendingPost pending = pendingByTrip.get(key);
+        if (pending != null) {
+            pending.fullScreen |= fullScreen;
+            return;
+        }
+
+        Long lastPost = lastPostByTrip.get(key);
+        if (lastPost == null || now - lastPost >= BATCH_WINDOW_MS) {
+            lastPostByTrip.put(key, now);
+            notifyTrip(appContext, key, new PendingPost(target, channelId, smallIcon, fullScreen), true);
+            return;
+        }
+
+        pendingByTrip.put(key, new PendingPost(target, channelId, smallIcon, fullScreen));
+        handler.postDelayed(() -> flush(appContext, key), BATCH_WINDOW_MS - (now - lastPost));
+    }
+
+    private static synchronized void flush(Context context, String key) {
+        PendingPost pending = pendingByTrip.remove(key);
+        if (pending == null) return;
+        lastPostByTrip.put(key, SystemClock.elapsedRealtime());
+        // La ráfaga ya sonó con el primer mensaje: la actualización solo vuelve a alertar si algún
+        // mensaje agrupado pidió pantalla completa (hay que despertar la pantalla otra vez)
+        notifyTrip(context, key, pending, pending.fullScreen);
+    }
+
+    private static void notifyTrip(Context context, String key, PendingPost post, boolean alert) {
+        try {
+            List<JSONObject> history = readMessages(context, key);
+
+            Person me = new Person.Builder().setName("Tú").build();
+            Person driver = new Person.Builder().setName("Conductor").build();
+            NotificationCompat.MessagingStyle style = new NotificationCompat.MessagingStyle(me);
+            String lastText = null;
+            for (JSONObject entry : history) {
+                lastText = entry.optString("message", "");
+                boolean fromDriver = !"user".equals(entry.optString("senderType"));
+                style.addMessage(lastText, entry.optLong("timestamp"), fromDriver ? driver : null);
+            }
+
+            Intent chatIntent = new Intent(context, post.target);
+            chatIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+            chatIntent.putExtra("tripId", "".equals(key) ? null : key);
+            chatIntent.putExtra("message", lastText);
+            chatIntent.putExtra("fromNotification", true);
+
+            int requestCode = key.hashCode();
+            PendingIntent contentIntent = PendingIntent.getActivity(
+                context, requestCode, chatIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+            NotificationCompat.Builder builder = new NotificationCompat.Builder(context, post.channelId)
+                .setSmallIcon(post.smallIcon)
+                .setContentTitle("💬 Mensaje del Conductor")
+                .setContentText(lastText)
+                .setStyle(style)
+                .setNumber(history.size())
+                .setPriority(NotificationCompat.PRIORITY_MAX)
+                .setCategory(NotificationCompat.CATEGORY_MESSAGE)
+                .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+                .setContentIntent(contentIntent)
+                .setAutoCancel(true)
+                .setOnlyAlertOnce(!alert);
+
+            if (post.fullScreen) {
+                PendingIntent fullScreenPendingIntent = PendingIntent.getActivity(
+                    context, requestCode + 1, chatIntent,
+                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+                builder.setFullScreenIntent(fullScreenPendingIntent, true);
+            }
+
+            NotificationManager nm = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+            nm.notify(NOTIFICATION_TAG_PREFIX + key, ChatWakePipeline.CHAT_NOTIFICATION_ID, builder.build());
+            Log.d(TAG, "Notificación de chat del viaje " + key + " con " + history.size() + " mensajes");
+        } catch (Exception e) {
+            Log.e(TAG, "Error publicando notificación: " + e.getMessage());
+        }
+    }
+
+    public static void cancel(Context context, String tripId) {
+        NotificationManager nm = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        nm.cancel(NOTIFICATION_TAG_PREFIX + tripKey(tripId), ChatWakePipeline.CHAT_NOTIFICATION_ID);
+    }
+
+    public static synchronized List<JSONObject> readMessages(Context context, String tripId) {
+        List<JSONObject> result = new ArrayList<>();
+        try {
+            JSONArray messages = new JSONArray(prefs(context).getString(tripKey(tripId), "[]"));
+            for (int i = 0; i < messages.length(); i++) {
+                result.add(messages.getJSONObject(i));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error leyendo mensajes: " + e.getMessage());
+        }
+        return result;
+    }
+
+    public static synchronized void clearMessages(Context context, String tripId) {
+        prefs(context).edit().remove(tripKey(tripId)).apply();
+    }
+
+    // ---- WakeLock compartido ----
+
+    /** Enciende la pantalla; llamadas repetidas reinician el plazo en vez de sumar locks. */
+    public static synchronized void holdScreen(Context context, long durationMs) {
+        try {
+            if (wakeLock == null) {
+                PowerManager pm = (PowerManager) context.getApplicationContext().getSystemService(Context.POWER_SERVICE);
+                wakeLock = pm.newWakeLock(
+                    PowerManager.SCREEN_BRIGHT_WAKE_LOCK |
+                    PowerManager.ACQUIRE_CAUSES_WAKEUP |
+                    PowerManager.ON_AFTER_RELEASE,
+                    "TaxiUserApp:ChatWake"
+                );
+                wakeLock.setReferenceCounted(false);
+            }
+            wakeLock.acquire(Math.min(durationMs, MAX_WAKE_MS));
+        } catch (Exception e) {
+            Log.e(TAG, "Error WakeLock: " + e.getMessage());
+        }
+    }
+
+    public static synchronized void releaseScreen() {
+        if (wakeLock != null && wakeLock.isHeld()) {
+            wakeLock.release();
+        }
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    private static String tripKey(String tripId) {
+        return tripId != null ? tripId : "";
+    }
+}
@@ -0,0 +1,84 @@
+package com.taxiappusercomplete;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import com.taxiappusercomplete.firebase.PushDispatcher;
+
+import org.json.JSONObject;
+
+import java.util.Map;
+
+public class ChatWakeModule extends ReactContextBaseJavaModule {
+
+    public ChatWakeModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return "ChatWake";
+    }
+
+    // {tripId} si una notificación de chat abrió la app; null si no
+    @ReactMethod
+    public void consumePendingOpenChat(Promise promise) {
+        Map<String, String> pending = ChatWakePipeline.consumePendingOpenChat();
+        if (pending == null) {
+            promise.resolve(null);
+            return;
+        }
+        WritableMap result = Arguments.createMap();
+        result.putString("tripId", pending.get("tripId"));
+        promise.resolve(result);
+    }
+
+    @ReactMethod
+    public void getMarkers(Promise promise) {
+        WritableMap markers = Arguments.createMap();
+        for (Map.Entry<String, Long> entry : ChatWakePipeline.snapshot().entrySet()) {
+            markers.putDouble(entry.getKey(), entry.getValue());
+        }
+        promise.resolve(markers);
+    }
+
+    // Latencia de los handlers FCM por tipo de mensaje
+    @ReactMethod
+    public void getPushStats(Promise promise) {
+        WritableMap result = Arguments.createMap();
+        for (Map.Entry<String, Map<String, Double>> type : PushDispatcher.get(getReactApplicationContext()).snapshot().entrySet()) {
+            WritableMap values = Arguments.createMap();
+            for (Map.Entry<String, Double> value : type.getValue().entrySet()) {
+                values.putDouble(value.getKey(), value.getValue());
+            }
+            result.putMap(type.getKey(), values);
+        }
+        promise.resolve(result);
+    }
+
+    // Últimos mensajes del viaje recibidos por FCM, para pintar el chat sin esperar a la red
+    @ReactMethod
+    public void getRecentMessages(String tripId, Promise promise) {
+        WritableArray messages = Arguments.createArray();
+        for (JSONObject entry : ChatNotificationAggregator.readMessages(getReactApplicationContext(), tripId)) {
+            WritableMap message = Arguments.createMap();
+            message.putString("messageId", entry.optString("messageId", null));
+            message.putString("message", entry.optString("message", ""));
+            message.putString("senderType", entry.optString("senderType", "driver"));
+            message.putDouble("timestamp", entry.optLong("timestamp"));
+            messages.pushMap(message);
+        }
+        promise.resolve(messages);
+    }
+
+    @ReactMethod
+    public void clearRecentMessages(String tripId) {
+        ChatNotificationAggregator.clearMessages(getReactApplicationContext(), tripId);
+        ChatNotificationAggregator.cancel(getReactApplicationContext(), tripId);
+    }
+}
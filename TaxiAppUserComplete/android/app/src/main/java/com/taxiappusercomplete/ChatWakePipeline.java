@@ -0,0 +1,142 @@
+package com.taxiappusercomplete;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Único camino para despertar la pantalla con un mensaje de chat en segundo plano.
+ *
+ * - Con permiso de full-screen intent basta la notificación (sin WakeScreenService).
+ * - Sin ese permiso se publica la notificación y WakeScreenService lanza ChatActivity de inmediato.
+ * - Varios mensajes del mismo viaje en pocos segundos despiertan una sola vez y se
+ *   agrupan en una notificación por viaje (ChatNotificationAggregator).
+ * - ChatActivity/MainActivity pasan al chat apenas React está listo (sin esperas fijas),
+ *   y cada etapa queda marcada para medir el tiempo hasta ver el chat.
+ */
+public class ChatWakePipeline {
+    private static final String TAG = "ChatWakePipeline";
+
+    public static final String CHAT_CHANNEL_ID = "chat_urgent_channel";
+    public static final int CHAT_NOTIFICATION_ID = 2001;
+    private static final long COALESCE_MS = 8000;
+
+    public static final String FCM_RECEIVED = "fcm_received";
+    public static final String WAKE_DISPATCHED = "wake_dispatched";
+    public static final String CHAT_ACTIVITY_CREATED = "chat_activity_created";
+    public static final String REACT_READY = "react_ready";
+    public static final String MAIN_ACTIVITY_OPENED = "main_activity_opened";
+    public static final String CHAT_OPENED = "chat_opened";
+
+    private static final Map<String, Long> lastWakeByTrip = new HashMap<>();
+    private static final Map<String, Long> markers = new LinkedHashMap<>();
+    private static long startedAt = 0;
+
+    private static boolean pendingOpenChat = false;
+    private static String pendingTripId = null;
+
+    public static void dispatch(Context context, Map<String, String> data) {
+        String tripId = data.get("tripId");
+        if (!ChatNotificationAggregator.append(context, data)) {
+            // Entrega repetida del mismo mensaje: ni notificar ni despertar otra vez
+            Log.d(TAG, "Mensaje duplicado ignorado (viaje " + tripId + ")");
+            return;
+        }
+        if (!shouldWake(tripId)) {
+            // Ráfaga del mismo viaje: solo actualizar el texto, sin volver a despertar
+            Log.d(TAG, "Mensaje agrupado con el despertar anterior (viaje " + tripId + ")");
+            showChatNotification(context, data, false);
+            return;
+        }
+
+        begin();
+        if (PermissionsModule.canUseFullScreenIntent(context)) {
+            showChatNotification(context, data, true);
+        } else {
+            // El servicio abre el chat, pero el mensaje debe quedar también en la bandeja
+            showChatNotification(context, data, false);
+            startWakeService(context, data);
+        }
+        mark(WAKE_DISPATCHED);
+    }
+
+    private static synchronized boolean shouldWake(String tripId) {
+        long now = SystemClock.elapsedRealtime();
+        Iterator<Map.Entry<String, Long>> it = lastWakeByTrip.entrySet().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().getValue() >= COALESCE_MS) it.remove();
+        }
+        String key = tripId != null ? tripId : "";
+        if (lastWakeByTrip.containsKey(key)) return false;
+        lastWakeByTrip.put(key, now);
+        return true;
+    }
+
+    private static void startWakeService(Context context, Map<String, String> data) {
+        Intent serviceIntent = new Intent(context, WakeScreenService.class);
+        serviceIntent.putExtra("tripId", data.get("tripId"));
+        serviceIntent.putExtra("message", data.get("message"));
+        serviceIntent.putExtra("senderType", data.get("senderType"));
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                context.startForegroundService(serviceIntent);
+            } else {
+                context.startService(serviceIntent);
+            }
+            Log.d(TAG, "WakeScreenService iniciado");
+        } catch (Exception e) {
+            // Android 12+ puede negar el servicio desde segundo plano: queda la notificación
+            Log.e(TAG, "Error iniciando servicio: " + e.getMessage());
+            showChatNotification(context, data, true);
+        }
+    }
+
+    private static void showChatNotification(Context context, Map<String, String> data, boolean fullScreen) {
+        ChatNotificationAggregator.post(context, data.get("tripId"), ChatActivity.class,
+            CHAT_CHANNEL_ID, R.mipmap.ic_launcher, fullScreen);
+    }
+
+    // ---- Chat pendiente para JS ----
+
+    public static synchronized void setPendingOpenChat(String tripId) {
+        pendingOpenChat = true;
+        pendingTripId = tripId;
+    }
+
+    /** Devuelve {tripId} una sola vez; null si no hay chat pendiente. */
+    public static synchronized Map<String, String> consumePendingOpenChat() {
+        if (!pendingOpenChat) return null;
+        Map<String, String> result = new HashMap<>();
+        result.put("tripId", pendingTripId);
+        pendingOpenChat = false;
+        pendingTripId = null;
+        mark(CHAT_OPENED);
+        return result;
+    }
+
+    // ---- Marcadores de tiempo ----
+
+    private static synchronized void begin() {
+        markers.clear();
+        startedAt = SystemClock.elapsedRealtime();
+        markers.put(FCM_RECEIVED, 0L);
+    }
+
+    public static synchronized void mark(String name) {
+        if (startedAt == 0 || markers.containsKey(name)) return;
+        long elapsed = SystemClock.elapsedRealtime() - startedAt;
+        markers.put(name, elapsed);
+        Log.d(TAG, "⏱️ " + name + ": " + elapsed + "ms");
+    }
+
+    public static synchronized Map<String, Long> snapshot() {
+        return new LinkedHashMap<>(markers);
+    }
+}
@@ -2,8 +2,6 @@ package com.taxiappusercomplete
 
 import android.content.Intent
 import android.os.Bundle
-import android.os.Handler
-import android.os.Looper
 import android.util.Log
 import com.facebook.react.ReactActivity
 import com.facebook.react.ReactActivityDelegate
@@ -13,8 +11,6 @@ import com.facebook.react.modules.core.DeviceEventManagerModule
 
 class MainActivity : ReactActivity() {
     private val TAG = "MainActivity"
-    private var pendingOpenChat = false
-    private var pendingTripId: String? = null
 
     override fun onCreate(savedInstanceState: Bundle?) {
         setTheme(R.style.AppTheme)
@@ -31,36 +27,26 @@ class MainActivity : ReactActivity() {
     private fun handleIntent(intent: Intent?) {
         if (intent != null && intent.getBooleanExtra("openChat", false)) {
             val tripId = intent.getStringExtra("tripId")
-            Log.d(TAG, "Intent openChat recibido, tripId: ")
-            
-            pendingOpenChat = true
-            pendingTripId = tripId
-            
-            sendOpenChatEvent()
-        }
-    }
+            Log.d(TAG, "Intent openChat recibido, tripId: $tripId")
 
-    private fun sendOpenChatEvent() {
-        val reactContext = reactInstanceManager.currentReactContext
-        if (reactContext != null && pendingOpenChat) {
-            Log.d(TAG, "Enviando evento OPEN_CHAT_FROM_NATIVE")
-            reactContext
-                .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter::class.java)
-                .emit("OPEN_CHAT_FROM_NATIVE", pendingTripId)
-            pendingOpenChat = false
-            pendingTripId = null
+            // JS lo toma con ChatWake.consumePendingOpenChat() apenas monta,
+            // o por el evento si ya estaba corriendo
+            ChatWakePipeline.setPendingOpenChat(tripId)
+            ChatWakePipeline.mark(ChatWakePipeline.MAIN_ACTIVITY_OPENED)
+            sendOpenChatEvent(tripId)
         }
     }
 
-    override fun onResume() {
-        super.onResume()
-        if (pendingOpenChat) {
-            Handler(Looper.getMainLooper()).postDelayed({ sendOpenChatEvent() }, 1000)
-        }
+    private fun sendOpenChatEvent(tripId: String?) {
+        val reactContext = reactInstanceManager.currentReactContext ?: return
+        Log.d(TAG, "Enviando evento OPEN_CHAT_FROM_NATIVE")
+        reactContext
+            .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter::class.java)
+            .emit("OPEN_CHAT_FROM_NATIVE", tripId)
     }
 
     override fun getMainComponentName(): String = "TaxiAppUserComplete"
 
     override fun createReactActivityDelegate(): ReactActivityDelegate =
         DefaultReactActivityDelegate(this, mainComponentName, fabricEnabled)
-}
\ No newline at end of file
+}
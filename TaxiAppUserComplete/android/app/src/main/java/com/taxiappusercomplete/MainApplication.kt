@@ -9,6 +9,8 @@ import com.facebook.react.ReactNativeHost
 import com.facebook.react.ReactPackage
 import com.facebook.react.defaults.DefaultReactHost.getDefaultReactHost
 import com.facebook.react.defaults.DefaultReactNativeHost
+import com.facebook.react.uimanager.ReactShadowNodeImpl
+import com.reactnativecommunity.asyncstorage.AsyncStoragePrefetch
 
 class MainApplication : Application(), ReactApplication {
 
@@ -32,6 +34,14 @@ class MainApplication : Application(), ReactApplication {
 
   override fun onCreate() {
     super.onCreate()
+    AppForegroundTracker.install(this)
+    // Leer las claves de arranque (AsyncStorage_prefetchKeys) mientras carga el bundle
+    AsyncStoragePrefetch.start(this)
     loadReactNative(this)
+    // Crear nodos Yoga en segundo plano (yogaNodePoolWarmup) para el primer render de las
+    // pantallas grandes; el pool solo existe en la arquitectura antigua
+    if (!BuildConfig.IS_NEW_ARCHITECTURE_ENABLED) {
+      ReactShadowNodeImpl.prewarmYogaNodePool(BuildConfig.YOGA_NODE_POOL_WARMUP)
+    }
   }
 }
\ No newline at end of file
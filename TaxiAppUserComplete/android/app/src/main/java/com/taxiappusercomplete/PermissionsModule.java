@@ -85,17 +85,21 @@ public class PermissionsModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void canUseFullScreenIntent(Promise promise) {
         try {
-            if (Build.VERSION.SDK_INT >= 34) {
-                NotificationManager nm = (NotificationManager) reactContext.getSystemService(Context.NOTIFICATION_SERVICE);
-                promise.resolve(nm.canUseFullScreenIntent());
-            } else {
-                promise.resolve(true);
-            }
+            promise.resolve(canUseFullScreenIntent(reactContext));
         } catch (Exception e) {
             promise.reject("ERROR", e.getMessage());
         }
     }
 
+    // También lo usa ChatWakePipeline para decidir si hace falta WakeScreenService
+    public static boolean canUseFullScreenIntent(Context context) {
+        if (Build.VERSION.SDK_INT >= 34) {
+            NotificationManager nm = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+            return nm.canUseFullScreenIntent();
+        }
+        return true;
+    }
+
     @ReactMethod
     public void requestFullScreenIntentPermission() {
         try {
@@ -14,6 +14,7 @@ public class PermissionsPackage implements ReactPackage {
     public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
         List<NativeModule> modules = new ArrayList<>();
         modules.add(new PermissionsModule(reactContext));
+        modules.add(new ChatWakeModule(reactContext));
         return modules;
     }
 
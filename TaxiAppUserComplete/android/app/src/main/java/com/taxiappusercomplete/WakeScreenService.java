@@ -11,7 +11,6 @@ import android.os.Build;
 import android.os.Handler;
 import android.os.IBinder;
 import android.os.Looper;
-import android.os.PowerManager;
 import android.util.Log;
 import android.view.WindowManager;
 
@@ -20,7 +19,8 @@ import androidx.core.app.NotificationCompat;
 public class WakeScreenService extends Service {
     private static final String TAG = "WakeScreenService";
     private static final String CHANNEL_ID = "wake_service_channel";
-    private PowerManager.WakeLock wakeLock;
+    private static final long MAX_LIFETIME_MS = 10000;
+    private final Handler handler = new Handler(Looper.getMainLooper());
     private String tripId;
     private String message;
 
@@ -45,28 +45,19 @@ public class WakeScreenService extends Service {
         // Desbloquear keyguard si es necesario
         dismissKeyguard();
         
-        // Esperar un momento y luego lanzar la Activity
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-            launchChatActivity();
-            stopSelf();
-        }, 500);
+        // Lanzar ya; ChatActivity detiene el servicio (y suelta el WakeLock) al crearse.
+        // Si nunca llega a crearse, no retener la pantalla más de lo necesario.
+        launchChatActivity();
+        handler.removeCallbacksAndMessages(null);
+        handler.postDelayed(this::stopSelf, MAX_LIFETIME_MS);
         
         return START_NOT_STICKY;
     }
 
     private void wakeScreen() {
-        try {
-            PowerManager pm = (PowerManager) getSystemService(Context.POWER_SERVICE);
-            wakeLock = pm.newWakeLock(
-                PowerManager.SCREEN_BRIGHT_WAKE_LOCK |
-                PowerManager.ACQUIRE_CAUSES_WAKEUP,
-                "TaxiUserApp:WakeScreen"
-            );
-            wakeLock.acquire(60000);
-            Log.d(TAG, "WakeLock adquirido - pantalla despertada");
-        } catch (Exception e) {
-            Log.e(TAG, "Error wakeScreen: " + e.getMessage());
-        }
+        // WakeLock compartido con el resto del flujo de chat: nunca más de uno a la vez
+        ChatNotificationAggregator.holdScreen(this, MAX_LIFETIME_MS);
+        Log.d(TAG, "WakeLock adquirido - pantalla despertada");
     }
 
     private void dismissKeyguard() {
@@ -128,10 +119,9 @@ public class WakeScreenService extends Service {
     @Override
     public void onDestroy() {
         Log.d(TAG, "WakeScreenService destruido");
-        if (wakeLock != null && wakeLock.isHeld()) {
-            wakeLock.release();
-            Log.d(TAG, "WakeLock liberado");
-        }
+        handler.removeCallbacksAndMessages(null);
+        ChatNotificationAggregator.releaseScreen();
+        Log.d(TAG, "WakeLock liberado");
         super.onDestroy();
     }
 }
\ No newline at end of file
@@ -0,0 +1,187 @@
+package com.taxiappusercomplete.firebase;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.core.app.NotificationCompat;
+
+import com.google.firebase.messaging.RemoteMessage;
+
+import com.taxiappusercomplete.AppForegroundTracker;
+import com.taxiappusercomplete.ChatWakePipeline;
+import com.taxiappusercomplete.MainActivity;
+import com.taxiappusercomplete.R;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Despacho único de los mensajes FCM del pasajero: una tabla tipo → handler.
+ *
+ * onMessageReceived solo encola; los handlers corren en un hilo propio (en orden, para
+ * que los mensajes de chat se agrupen como llegaron) y se mide su latencia por tipo.
+ * Los canales se registran una sola vez por proceso.
+ */
+public class PushDispatcher {
+    private static final String TAG = "PushDispatcher";
+    public static final String CHANNEL_ID = "taxi_notifications";
+    private static final String NOTIFICATION_TYPE = "notification";
+    private static final String UNKNOWN_TYPE = "unknown";
+
+    interface Handler {
+        /** Devuelve true si el mensaje quedó atendido y no debe mostrarse la notificación genérica. */
+        boolean handle(Context context, RemoteMessage message);
+    }
+
+    private static class Stats {
+        long count;
+        long totalMs;
+        long maxMs;
+        long totalQueueMs;
+    }
+
+    private static PushDispatcher instance;
+
+    private final Context context;
+    private final Map<String, Handler> handlers = new HashMap<>();
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "PushDispatcher");
+        thread.setPriority(Thread.MAX_PRIORITY);
+        return thread;
+    });
+
+    public static synchronized PushDispatcher get(Context context) {
+        if (instance == null) {
+            instance = new PushDispatcher(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private PushDispatcher(Context context) {
+        this.context = context;
+        createNotificationChannels();
+
+        handlers.put("NEW_CHAT_MESSAGE", PushDispatcher::handleChatMessage);
+        handlers.put("trip_assigned", (ctx, message) -> {
+            showNotification("Conductor asignado!", "Tu conductor llegara pronto");
+            return false;
+        });
+        // React Native muestra su propia UI para estos; no duplicar la notificación
+        handlers.put("DRIVER_ASSIGNED", (ctx, message) -> true);
+        handlers.put("DRIVER_ARRIVED", (ctx, message) -> true);
+    }
+
+    public void dispatch(RemoteMessage message) {
+        long enqueuedAt = SystemClock.elapsedRealtime();
+        executor.execute(() -> run(message, enqueuedAt));
+    }
+
+    private void run(RemoteMessage message, long enqueuedAt) {
+        Map<String, String> data = message.getData();
+        String type = data.get("type");
+        long start = SystemClock.elapsedRealtime();
+        String statsKey = type != null ? type : (message.getNotification() != null ? NOTIFICATION_TYPE : UNKNOWN_TYPE);
+
+        try {
+            boolean handled = false;
+            Handler handler = type != null ? handlers.get(type) : null;
+            if (handler != null) {
+                handled = handler.handle(context, message);
+            } else if (type != null) {
+                Log.d(TAG, "Tipo sin handler: " + type);
+            }
+
+            if (!handled && message.getNotification() != null) {
+                showNotification(message.getNotification().getTitle(), message.getNotification().getBody());
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error en handler " + statsKey + ": " + e.getMessage());
+        } finally {
+            record(statsKey, start - enqueuedAt, SystemClock.elapsedRealtime() - start);
+        }
+    }
+
+    private static boolean handleChatMessage(Context context, RemoteMessage message) {
+        PowerManager pm = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        boolean isScreenOn = pm.isInteractive();
+
+        if (!isScreenOn || !AppForegroundTracker.isForeground()) {
+            ChatWakePipeline.dispatch(context, message.getData());
+        } else {
+            Log.d(TAG, "App en foreground");
+        }
+        return true;
+    }
+
+    private void showNotification(String title, String body) {
+        Intent intent = new Intent(context, MainActivity.class);
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent pendingIntent = PendingIntent.getActivity(context, 0, intent, PendingIntent.FLAG_IMMUTABLE);
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setContentTitle(title)
+                .setContentText(body)
+                .setAutoCancel(true)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setContentIntent(pendingIntent);
+
+        NotificationManager nm = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        nm.notify(0, builder.build());
+    }
+
+    private void createNotificationChannels() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) return;
+        NotificationManager nm = context.getSystemService(NotificationManager.class);
+
+        nm.createNotificationChannel(new NotificationChannel(
+            CHANNEL_ID, "TaxiApp", NotificationManager.IMPORTANCE_HIGH));
+
+        NotificationChannel chat = new NotificationChannel(
+            ChatWakePipeline.CHAT_CHANNEL_ID, "Mensajes Chat", NotificationManager.IMPORTANCE_HIGH);
+        chat.enableVibration(true);
+        chat.setBypassDnd(true);
+        nm.createNotificationChannel(chat);
+    }
+
+    // ---- Latencia por tipo ----
+
+    private synchronized void record(String type, long queueMs, long handlerMs) {
+        Stats entry = stats.get(type);
+        if (entry == null) {
+            entry = new Stats();
+            stats.put(type, entry);
+        }
+        entry.count++;
+        entry.totalMs += handlerMs;
+        entry.totalQueueMs += queueMs;
+        entry.maxMs = Math.max(entry.maxMs, handlerMs);
+        Log.d(TAG, "⏱️ " + type + ": handler " + handlerMs + "ms, cola " + queueMs + "ms");
+    }
+
+    /** {tipo: {count, avgMs, maxMs, avgQueueMs}} */
+    public synchronized Map<String, Map<String, Double>> snapshot() {
+        Map<String, Map<String, Double>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            Map<String, Double> values = new LinkedHashMap<>();
+            values.put("count", (double) s.count);
+            values.put("avgMs", s.count > 0 ? (double) s.totalMs / s.count : 0);
+            values.put("maxMs", (double) s.maxMs);
+            values.put("avgQueueMs", s.count > 0 ? (double) s.totalQueueMs / s.count : 0);
+            result.put(entry.getKey(), values);
+        }
+        return result;
+    }
+}
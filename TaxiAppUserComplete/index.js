@@ -4,6 +4,11 @@ import { name as appName } from './app.json';
 import messaging from '@react-native-firebase/messaging';
 import AsyncStorage from '@react-native-async-storage/async-storage';
 import notifee from '@notifee/react-native';
+import NetInfo from '@react-native-community/netinfo';
+import { guardarAvisoPendiente } from './src/utils/pendingNotices';
+
+// Agrupar ráfagas de cambios de red (túneles, cambio de antena) en un solo evento
+NetInfo.configure({ eventSettleTimeout: 750 });
 
 // Solicitar permiso iOS — OBLIGATORIO
 async function requestIOSPermission() {
@@ -19,10 +24,11 @@ messaging().setBackgroundMessageHandler(async remoteMessage => {
   const { data } = remoteMessage;
 
   if (data?.type === 'DRIVER_ASSIGNED') {
-    await AsyncStorage.setItem('pending_driver_assignment', JSON.stringify(data));
+    // Caducan solas: un aviso de hace horas ya no corresponde a un viaje activo
+    await guardarAvisoPendiente('pending_driver_assignment', JSON.stringify(data));
     console.log('💾 Conductor asignado guardado');
   } else if (data?.type === 'NEW_CHAT_MESSAGE') {
-    await AsyncStorage.setItem('pending_chat_message', JSON.stringify(data));
+    await guardarAvisoPendiente('pending_chat_message', JSON.stringify(data));
     await AsyncStorage.setItem('open_chat_now', 'true');
     console.log('💾 Mensaje chat guardado');
   }
@@ -1,9 +1,10 @@
-import React, { useEffect, useRef, useState } from 'react';
+import React, { useEffect, useMemo, useRef, useState } from 'react';
 import {
   View,
   StyleSheet,
   Dimensions,
   Text,
+  Platform,
 } from 'react-native';
 import MapView, { Marker, Polyline, PROVIDER_GOOGLE } from 'react-native-maps';
 
@@ -229,29 +230,30 @@ const MapComponent = ({
     longitude: userLocation?.longitude || -69.9312,
   };
 
-  const mapReadyRef = useRef(false);
   const pollIntervalRef = useRef(null);
+  const lastCenterRef = useRef(null);
+  const centerEventsRef = useRef(false);
+
+  const reportCenter = (lat, lng) => {
+    const last = lastCenterRef.current;
+    if (!lat || !lng || (last && last.latitude === lat && last.longitude === lng)) return;
+    lastCenterRef.current = { latitude: lat, longitude: lng };
+    console.log('?? Camera center:', lat, lng);
+    onMapPress({ latitude: lat, longitude: lng });
+  };
 
+  // Respaldo: preguntar getCamera() cada 800ms. Siempre en iOS (no emite onCameraCenterSettled)
+  // y en Android hasta que llegue el primer evento, por si el parche de react-native-maps no est
   useEffect(() => {
     if (!interactive || !onMapPress) return;
 
     const timer = setTimeout(() => {
-      mapReadyRef.current = true;
-      let lastLat = null;
-      let lastLng = null;
-
+      if (Platform.OS === 'android' && centerEventsRef.current) return;
       pollIntervalRef.current = setInterval(async () => {
         if (!mapRef.current) return;
         try {
           const camera = await mapRef.current.getCamera();
-          const lat = camera?.center?.latitude;
-          const lng = camera?.center?.longitude;
-          if (lat && lng && (lat !== lastLat || lng !== lastLng)) {
-            lastLat = lat;
-            lastLng = lng;
-            console.log('?? Camera center:', lat, lng);
-            onMapPress({ latitude: lat, longitude: lng });
-          }
+          reportCenter(camera?.center?.latitude, camera?.center?.longitude);
         } catch (e) {}
       }, 800);
     }, 2000);
@@ -259,9 +261,37 @@ const MapComponent = ({
     return () => {
       clearTimeout(timer);
       if (pollIntervalRef.current) clearInterval(pollIntervalRef.current);
+      pollIntervalRef.current = null;
     };
   }, [interactive]);
 
+  // El mapa avisa cuando el centro se asienta (al soltar o tras una pausa al arrastrar);
+  // con el evento funcionando el sondeo sobra
+  const handleCameraCenterSettled = (event) => {
+    centerEventsRef.current = true;
+    if (Platform.OS === 'android' && pollIntervalRef.current) {
+      clearInterval(pollIntervalRef.current);
+      pollIntervalRef.current = null;
+    }
+    const center = event?.nativeEvent?.center;
+    reportCenter(center?.latitude, center?.longitude);
+  };
+
+  // Muestra para que el marcador del conductor se mueva suave entre consultas;
+  // memorizada para no reenviarla en cada re-render del mapa
+  const driverMotionSample = useMemo(() => {
+    if (!driverLocation?.latitude || !driverLocation?.longitude) return undefined;
+    // El backend manda 0 cuando no conoce la velocidad: sin velocidad el marcador la
+    // calcula con las dos ltimas muestras en vez de tratar al conductor como detenido
+    const speed = Number(driverLocation.speed);
+    return {
+      latitude: Number(driverLocation.latitude),
+      longitude: Number(driverLocation.longitude),
+      speed: speed > 0 ? speed : undefined,
+      timestamp: driverLocation.timestamp,
+    };
+  }, [driverLocation]);
+
   const handleRegionChangeComplete = (region) => {
     setCurrentRegion(region);
   };
@@ -316,6 +346,9 @@ const MapComponent = ({
         onRegionChange={interactive ? handleRegionChangeInteractive : undefined}
         onRegionChangeComplete={interactive ? handleRegionChangeCompleteInteractive : handleRegionChangeComplete}
         onPress={!interactive ? undefined : undefined}
+        onCameraCenterSettled={interactive && onMapPress ? handleCameraCenterSettled : undefined}
+        cameraCenterMinDistance={5}
+        cameraCenterDragDebounce={300}
       >
         {/* Marcador del Usuario - Modo Normal */}
         {!trackingMode && !interactive && (
@@ -359,6 +392,7 @@ const MapComponent = ({
               latitude: Number(driverLocation.latitude),
               longitude: Number(driverLocation.longitude),
             }}
+            motionSample={driverMotionSample}
             title="Conductor"
             pinColor="green"
           />
@@ -66,6 +66,8 @@ class DriverTrackingService {
       clearInterval(this.trackingInterval);
     }
 
+    // No se alarga aunque el marcador extrapole con motionSample: sin el parche de
+    // react-native-maps ese prop se ignora y el marcador saltaría entre consultas
     const POLL_INTERVAL = 3000;
 
     this.trackingInterval = setInterval(async () => {
@@ -171,7 +173,8 @@ class DriverTrackingService {
       const driverLocation = {
         latitude: parseFloat(data.latitude),
         longitude: parseFloat(data.longitude),
-        speed: parseFloat(data.speed) || 0
+        speed: parseFloat(data.speed) || 0,
+        timestamp: Date.now()
       };
 
       console.log('📍 Ubicación REAL del conductor:', driverLocation);
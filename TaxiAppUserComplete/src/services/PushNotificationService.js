@@ -2,6 +2,7 @@ import messaging from '@react-native-firebase/messaging';
 import AsyncStorage from '@react-native-async-storage/async-storage';
 import { Alert, DeviceEventEmitter } from 'react-native';
 import SecureStorage from './SecureStorage';
+import { guardarAvisoPendiente } from '../utils/pendingNotices';
 
 class PushNotificationService {
   constructor() {
@@ -117,11 +118,11 @@ class PushNotificationService {
       
       if (data?.type === 'DRIVER_ASSIGNED') {
         // Guardar datos para procesarlos cuando la app vuelva al foreground
-        await AsyncStorage.setItem('pending_driver_assignment', JSON.stringify(data));
+        await guardarAvisoPendiente('pending_driver_assignment', JSON.stringify(data));
         console.log('💾 Datos de conductor guardados para procesar después');
       } else if (data?.type === 'NEW_CHAT_MESSAGE') {
         // Guardar mensaje pendiente para cuando la app vuelva al foreground
-        await AsyncStorage.setItem('pending_chat_message', JSON.stringify(data));
+        await guardarAvisoPendiente('pending_chat_message', JSON.stringify(data));
         console.log('💾 Mensaje de chat guardado para procesar después');
         // Reproducir voz
         try {
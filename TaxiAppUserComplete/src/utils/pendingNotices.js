@@ -0,0 +1,16 @@
+import AsyncStorage from '@react-native-async-storage/async-storage';
+
+// Los avisos recibidos en background caducan si no se procesan en 30 minutos
+const PENDIENTE_TTL_MS = 30 * 60 * 1000;
+
+// Guarda un aviso para procesarlo cuando la app vuelva al foreground. La caducidad es opcional:
+// setExpiry solo existe con el parche de async-storage (patches/), y sin él el aviso se guarda igual.
+export async function guardarAvisoPendiente(clave, valor) {
+  await AsyncStorage.setItem(clave, valor);
+  if (typeof AsyncStorage.setExpiry !== 'function') return;
+  try {
+    await AsyncStorage.setExpiry([clave], PENDIENTE_TTL_MS);
+  } catch (error) {
+    console.log('⚠️ No se pudo fijar la caducidad de', clave, error?.message);
+  }
+}
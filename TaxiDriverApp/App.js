@@ -43,6 +43,7 @@ import { NativeModules, AppState } from 'react-native';
 import Geolocation from '@react-native-community/geolocation';
 import { SafeAreaProvider, SafeAreaView } from 'react-native-safe-area-context';
 import { shadows } from './src/utils/shadows';
+import { startViewOperationMetrics, stopViewOperationMetrics, markScreen } from './src/utils/viewOperationMetrics';
 
 // Configuración de Geolocation para iOS y Android
 Geolocation.setRNConfiguration({
@@ -51,7 +52,7 @@ Geolocation.setRNConfiguration({
   enableBackgroundLocationUpdates: true,
   locationProvider: 'auto',
 });
-const { BringToForeground, OverlayPermission, TripIntent } = NativeModules;
+const { BringToForeground, OverlayPermission, TripIntent, DriverSync } = NativeModules;
 
 // Variable global para el sonido (accesible desde cualquier lugar)
 let globalSoundInstance = null;
@@ -327,7 +328,8 @@ global.handleDriverArrivedConfirmation = (data) => {
     };
 
     checkDriverStatus();
-    const interval = setInterval(checkDriverStatus, 30000);
+    // Con conductor logueado el status llega por DriverSync nativo (slice "status")
+    const interval = (DriverSync && loggedDriver?.id) ? null : setInterval(checkDriverStatus, 30000);
 
     // Listener para nuevo deep link mientras app abierta
     const sub = Linking.addEventListener('url', ({ url }) => {
@@ -335,10 +337,58 @@ global.handleDriverArrivedConfirmation = (data) => {
     });
 
     return () => {
-      clearInterval(interval);
+      if (interval) clearInterval(interval);
       if (sub) sub.remove();
     };
   }, [loggedDriver]);
+
+  // Sincronización nativa consolidada: un request condicional por tick en lugar de
+  // los intervalos de status, suspensión, comunicados y chat
+  const alertedCommunicationsRef = useRef(new Set());
+  useEffect(() => {
+    if (!DriverSync || !loggedDriver?.id) return;
+
+    DriverSync.start(String(loggedDriver.id));
+    const subscription = DeviceEventEmitter.addListener('DriverSyncSlice', ({ slice, data }) => {
+      const payload = data ? JSON.parse(data) : null;
+      if (!payload) return;
+
+      if (slice === 'status' && payload.status) {
+        setDriverApprovalStatus(payload.status);
+      } else if (slice === 'suspension') {
+        // Una suspensión levantada (o vencida) devuelve al conductor a desconectado
+        setDriverStatus(prev => (payload.isSuspended ? 'suspended' : prev === 'suspended' ? 'offline' : prev));
+      } else if (slice === 'communications' && payload.count > 0) {
+        for (const comm of payload.unread) {
+          if (alertedCommunicationsRef.current.has(comm.id)) continue;
+          alertedCommunicationsRef.current.add(comm.id);
+          Alert.alert(
+            `📢 ${comm.subject}`,
+            comm.message,
+            [{
+              text: 'OK',
+              onPress: async () => {
+                await fetch('https://web-production-99844.up.railway.app/api/communications/mark-read', {
+                  method: 'POST',
+                  headers: { 'Content-Type': 'application/json' },
+                  body: JSON.stringify({ communicationId: comm.id, driverId: loggedDriver.id })
+                });
+              }
+            }]
+          );
+        }
+      }
+    });
+
+    return () => {
+      subscription.remove();
+      DriverSync.stop();
+    };
+  }, [loggedDriver?.id]);
+
+  useEffect(() => {
+    if (DriverSync) DriverSync.setTripId(currentTrip?.id ? String(currentTrip.id) : null);
+  }, [currentTrip?.id]);
   
   // Estados para métricas de desempeño
   const [driverStats, setDriverStats] = useState({
@@ -369,6 +419,16 @@ global.handleDriverArrivedConfirmation = (data) => {
     }
   }, [driverStats]);
   
+  // Métricas de vistas (solo debug): cada pantalla cierra su ventana para cruzar jank y pantalla
+  const pantallaMetricas = showChatModal ? 'chat' : currentTrip ? 'viaje' : activeTab;
+  useEffect(() => {
+    if (!__DEV__ || !startViewOperationMetrics()) return undefined;
+    return () => stopViewOperationMetrics();
+  }, []);
+  useEffect(() => {
+    markScreen(pantallaMetricas);
+  }, [pantallaMetricas]);
+
   const timerRef = useRef(null);
   const soundRef = useRef(null);
  const soundCancelledRef = useRef(false);
@@ -553,11 +613,21 @@ useEffect(() => {
               type: 'NEW_TRIP_REQUEST',
             };
         // Auto-aceptar el viaje (ya fue aceptado en pantalla nativa)
-            setTimeout(() => {
-              if (global.autoAcceptTrip) {
-                global.autoAcceptTrip(tripData);
-              }
-            }, 1000);
+            // Si React ya estaba pre-calentado el handler existe y no hace falta esperar
+            if (global.autoAcceptTrip) {
+              global.autoAcceptTrip(tripData);
+            } else {
+              setTimeout(() => {
+                if (global.autoAcceptTrip) {
+                  global.autoAcceptTrip(tripData);
+                }
+              }, 1000);
+            }
+            if (TripIntent.getStartupMarkers) {
+              TripIntent.getStartupMarkers()
+                .then(markers => console.log('⏱️ Tiempos de arranque:', markers))
+                .catch(() => {});
+            }
           }
         }
       } catch (error) {
@@ -633,7 +703,10 @@ useEffect(() => {
     };
     
     // Ejecutar después de 2 segundos para que la app cargue primero
-    setTimeout(checkUnreadCommunications, 2000);
+    // (con DriverSync nativo los comunicados llegan en el slice "communications")
+    if (!DriverSync) {
+      setTimeout(checkUnreadCommunications, 2000);
+    }
     
     // Cargar estadísticas persistidas
     const loadStats = async () => {
@@ -1160,9 +1233,10 @@ global.autoAcceptTrip = async (tripData) => {
       }
     };
     
-    // Ejecutar inmediatamente y luego cada 10 segundos
+    // Ejecutar inmediatamente y luego cada 30 segundos
+    // (FcmEventRouter nativo ya deduplica y ordena los push; esto es solo respaldo)
     pollPendingTrips();
-    const interval = setInterval(pollPendingTrips, 10000);
+    const interval = setInterval(pollPendingTrips, 30000);
     
     return () => {
       console.log('⏹️ Deteniendo polling de viajes');
@@ -1206,7 +1280,7 @@ useEffect(() => {
       // Reproducir voz TTS
       try {
         const Tts = require('react-native-tts').default;
-        Tts.speak('Has llegado al punto de recogida del pasajero');
+        Tts.speak('Has llegado al punto de recogida del pasajero', { priority: 'safety' });
       } catch (e) {
         console.log('TTS no disponible');
       }
@@ -2860,20 +2934,39 @@ onPress: async () => {
   const bgChatCheckRef = useRef(null);
 
   useEffect(() => {
+    const openChatWithNewMessage = async () => {
+      loadDriverChatMessages();
+      setShowChatModal(true);
+      try { const Speech = require('react-native-tts').default; await Speech.setDefaultLanguage('es-ES'); await Speech.setDefaultRate(0.5); await Speech.speak('Tienes un mensaje nuevo'); } catch(e) { console.log('Error TTS chat:', e); }
+      chatIntervalRef.current = setInterval(() => {
+        loadDriverChatMessages();
+      }, 3000);
+    };
+
+    // Con DriverSync nativo el conteo de no leídos llega en el slice "chat"
+    if (DriverSync && currentTrip?.id && !showChatModal) {
+      const subscription = DeviceEventEmitter.addListener('DriverSyncSlice', ({ slice, data }) => {
+        if (slice !== 'chat' || !data) return;
+        const chat = JSON.parse(data);
+        if (chat && String(chat.tripId) === String(currentTrip.id) && chat.unread > 0) {
+          subscription.remove();
+          openChatWithNewMessage();
+        }
+      });
+      // El slice solo se emite al cambiar: pedir el estado actual por si ya había no leídos
+      DriverSync.resync();
+      return () => subscription.remove();
+    }
+
     if (currentTrip?.id && !showChatModal) {
       bgChatCheckRef.current = setInterval(async () => {
         try {
           const res = await fetch(`https://web-production-99844.up.railway.app/api/trip-messages/unread/${currentTrip.id}/driver`);
           const data = await res.json();
       if (data.success && data.unread > 0) {
-            loadDriverChatMessages();
-            setShowChatModal(true);
-            try { const Speech = require('react-native-tts').default; await Speech.setDefaultLanguage('es-ES'); await Speech.setDefaultRate(0.5); await Speech.speak('Tienes un mensaje nuevo'); } catch(e) { console.log('Error TTS chat:', e); }
             clearInterval(bgChatCheckRef.current);
             bgChatCheckRef.current = null;
-            chatIntervalRef.current = setInterval(() => {
-              loadDriverChatMessages();
-            }, 3000);
+            openChatWithNewMessage();
           }
         } catch (e) {}
       }, 4000);
@@ -5,10 +5,22 @@ import Geolocation from '@react-native-community/geolocation';
 import Tts from 'react-native-tts';
 import MapViewDirections from 'react-native-maps-directions';
 
-// Configurar TTS para iOS y Android
-Tts.setDefaultLanguage('es-ES');
-Tts.setDefaultRate(0.5);
-Tts.setDefaultPitch(1.0);
+// Frases fijas que se pre-sintetizan para que suenen sin esperar al motor
+const FRASES_FIJAS = [
+  'Has llegado al destino',
+  'Has llegado al punto de recogida del pasajero',
+  'Ruta recalculada',
+];
+
+// Configurar TTS para iOS y Android (el motor rechaza la configuración antes de iniciar)
+Tts.getInitStatus()
+  .then(() => Promise.all([
+    Tts.setDefaultLanguage('es-ES'),
+    Tts.setDefaultRate(0.5),
+    Tts.setDefaultPitch(1.0),
+  ]))
+  .then(() => Tts.prewarm(FRASES_FIJAS))
+  .catch((err) => console.log('❌ TTS config error:', err));
 
 // Configuración específica iOS
 Tts.addEventListener('tts-start', () => console.log('🔊 TTS iniciado'));
@@ -361,11 +373,10 @@ if (propUserLocation && propUserLocation.latitude && propUserLocation.longitude)
     if (distanceToTarget < 50) {
       if (voiceEnabled && lastSpokenStep.current !== 'arrived') {
         lastSpokenStep.current = 'arrived';
-        Tts.stop();
         const mensaje = tripPhase === 'started' 
           ? 'Has llegado al destino' 
           : 'Has llegado al punto de recogida del pasajero';
-        speakInstruction(mensaje);
+        speakInstruction(mensaje, 'safety');
       }
       setIsNavigating(false);
       const alertTitle = tripPhase === 'started' ? '✅ Destino' : '✅ Llegaste';
@@ -644,10 +655,10 @@ if (propUserLocation && propUserLocation.latitude && propUserLocation.longitude)
     mapCentered.current = true;
   };
 
-  const speakInstruction = (text) => {
+  // El módulo nativo prioriza: una instrucción nueva reemplaza a la anterior y las viejas caducan
+  const speakInstruction = (text, priority = 'navigation') => {
     if (!voiceEnabled) return;
-    Tts.stop();
-    Tts.speak(text);
+    Tts.speak(text, { priority });
   };
 
 // Función para abrir navegación externa (Google Maps o Waze)
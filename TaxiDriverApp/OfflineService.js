@@ -1,5 +1,9 @@
 import AsyncStorage from '@react-native-async-storage/async-storage';
 import NetInfo from '@react-native-community/netinfo';
+import { journal, migrateLegacyQueue } from './QueueJournal';
+
+const JOURNAL_QUEUE = 'pendingOfflineActions';
+const DRAIN_BATCH_SIZE = 20;
 
 class OfflineService {
   constructor() {
@@ -53,15 +57,21 @@ class OfflineService {
   // Guardar acción para ejecutar cuando vuelva online
   async saveOfflineAction(action) {
     try {
-      const actions = await this.getPendingActions();
-      actions.push({
+      const entry = {
         id: Date.now().toString(),
         type: action.type,
         data: action.data,
         timestamp: new Date().toISOString()
-      });
-      
-      await AsyncStorage.setItem('pendingOfflineActions', JSON.stringify(actions));
+      };
+
+      if (journal) {
+        await migrateLegacyQueue(JOURNAL_QUEUE, 'pendingOfflineActions');
+        await journal.append(JOURNAL_QUEUE, JSON.stringify(entry));
+      } else {
+        const actions = await this.getPendingActions();
+        actions.push(entry);
+        await AsyncStorage.setItem('pendingOfflineActions', JSON.stringify(actions));
+      }
       console.log('💾 Acción guardada offline:', action.type);
       
       return true;
@@ -74,6 +84,12 @@ class OfflineService {
   // Obtener acciones pendientes
   async getPendingActions() {
     try {
+      if (journal) {
+        await migrateLegacyQueue(JOURNAL_QUEUE, 'pendingOfflineActions');
+        const { count } = await journal.size(JOURNAL_QUEUE);
+        const records = await journal.peek(JOURNAL_QUEUE, count);
+        return records.map(record => JSON.parse(record.data));
+      }
       const actions = await AsyncStorage.getItem('pendingOfflineActions');
       return actions ? JSON.parse(actions) : [];
     } catch (error) {
@@ -84,6 +100,11 @@ class OfflineService {
 
   // Sincronizar acciones pendientes
   async syncPendingActions() {
+    if (journal) {
+      await this.drainJournal();
+      return;
+    }
+
     const actions = await this.getPendingActions();
     
     if (actions.length === 0) {
@@ -106,6 +127,36 @@ class OfflineService {
     }
   }
 
+  // Vaciar el journal por lotes; cada lote se confirma con un solo ack
+  async drainJournal() {
+    await migrateLegacyQueue(JOURNAL_QUEUE, 'pendingOfflineActions');
+
+    while (true) {
+      const records = await journal.peek(JOURNAL_QUEUE, DRAIN_BATCH_SIZE);
+      if (records.length === 0) {
+        console.log('✅ No hay acciones pendientes para sincronizar');
+        return;
+      }
+
+      console.log(`🔄 Sincronizando ${records.length} acciones pendientes...`);
+      let lastProcessed = null;
+      for (const record of records) {
+        const action = JSON.parse(record.data);
+        try {
+          await this.processOfflineAction(action);
+          lastProcessed = record.seq;
+        } catch (error) {
+          console.error('❌ Error procesando acción:', action.type, error);
+          break;
+        }
+      }
+
+      if (lastProcessed === null) return;
+      await journal.ack(JOURNAL_QUEUE, lastProcessed);
+      if (lastProcessed !== records[records.length - 1].seq) return;
+    }
+  }
+
   // Procesar una acción offline
   async processOfflineAction(action) {
     console.log('⚙️ Procesando acción:', action.type);
@@ -136,6 +187,9 @@ class OfflineService {
   // Limpiar todas las acciones pendientes
   async clearPendingActions() {
     await AsyncStorage.removeItem('pendingOfflineActions');
+    if (journal) {
+      await journal.clear(JOURNAL_QUEUE);
+    }
     console.log('🗑️ Acciones pendientes limpiadas');
   }
 }
@@ -0,0 +1,48 @@
+// QueueJournal.js - Cola persistente nativa (solo-agregar) para SmartSync y Offline
+import AsyncStorage from '@react-native-async-storage/async-storage';
+import { NativeModules } from 'react-native';
+
+const { QueueJournal } = NativeModules;
+
+// null si el módulo nativo no está disponible (iOS): los servicios usan AsyncStorage
+export const journal = QueueJournal || null;
+
+// Migración en curso o terminada por cola; se borra si falla para reintentar
+const migrations = {};
+
+// Pasar una cola vieja (array JSON en AsyncStorage) al journal una sola vez
+export function migrateLegacyQueue(queue, storageKey) {
+  if (!journal) return Promise.resolve();
+  if (!migrations[queue]) {
+    migrations[queue] = migrate(queue, storageKey).then(done => {
+      if (!done) delete migrations[queue];
+    });
+  }
+  return migrations[queue];
+}
+
+async function migrate(queue, storageKey) {
+  let items = [];
+  let appended = 0;
+  try {
+    const legacy = await AsyncStorage.getItem(storageKey);
+    if (!legacy) return true;
+    items = JSON.parse(legacy) || [];
+    for (const item of items) {
+      await journal.append(queue, JSON.stringify(item));
+      appended++;
+    }
+    await AsyncStorage.removeItem(storageKey);
+    console.log(`📒 ${items.length} items migrados de ${storageKey} al journal`);
+    return true;
+  } catch (error) {
+    console.error('❌ Error migrando cola:', error);
+    // Dejar solo lo que no llegó al journal, para que el reintento no lo duplique
+    if (appended > 0) {
+      try {
+        await AsyncStorage.setItem(storageKey, JSON.stringify(items.slice(appended)));
+      } catch (e) {}
+    }
+    return false;
+  }
+}
@@ -1,13 +1,19 @@
 import AsyncStorage from '@react-native-async-storage/async-storage';
 import NetInfo from '@react-native-community/netinfo';
+import { journal, migrateLegacyQueue } from './QueueJournal';
 
 const API_URL = 'https://web-production-99844.up.railway.app';
+const JOURNAL_QUEUE = 'syncQueue';
+const DRAIN_BATCH_SIZE = 20;
+// Tamaño de lote según la calidad de enlace que estima netinfo (details.linkQuality)
+const DRAIN_BATCH_SIZE_BY_QUALITY = { poor: 5, moderate: 10, good: 20, excellent: 40 };
 
 class SmartSyncService {
   constructor() {
     this.syncQueue = [];
     this.isSyncing = false;
     this.lastSyncTime = null;
+    this.linkQuality = 'unknown';
     this.onTripSynced = null;
     this.onRouteRecalculateNeeded = null;
     this.syncPriorities = {
@@ -216,9 +222,15 @@ class SmartSyncService {
       maxAttempts: 3
     };
 
-    this.syncQueue.push(syncItem);
-    this.syncQueue.sort((a, b) => a.priority - b.priority);
-    this.saveSyncQueue();
+    if (journal) {
+      // O(1): solo se agrega un registro al journal nativo, sin reescribir la cola
+      journal.append(JOURNAL_QUEUE, JSON.stringify(syncItem))
+        .catch(error => console.error('❌ Error guardando en journal:', error));
+    } else {
+      this.syncQueue.push(syncItem);
+      this.syncQueue.sort((a, b) => a.priority - b.priority);
+      this.saveSyncQueue();
+    }
 
     console.log(`📦 Item agregado a cola - Prioridad: ${priority}`);
 
@@ -246,8 +258,67 @@ class SmartSyncService {
     }
   }
 
+  // Vaciar el journal por lotes: peek(n) → enviar → ack(último seq)
+  async drainJournal() {
+    // Marcar antes del primer await: dos disparadores (cola y conectividad) podrían pasar
+    // el chequeo a la vez y enviar los mismos registros dos veces
+    if (this.isSyncing) return;
+    this.isSyncing = true;
+
+    try {
+      await migrateLegacyQueue(JOURNAL_QUEUE, 'syncQueue');
+
+      while (true) {
+        const isOnline = await this.checkConnection();
+        if (!isOnline) {
+          console.log('📡 Sin conexión - pausando sincronización');
+          break;
+        }
+
+        const batchSize = DRAIN_BATCH_SIZE_BY_QUALITY[this.linkQuality] || DRAIN_BATCH_SIZE;
+        const records = await journal.peek(JOURNAL_QUEUE, batchSize);
+        if (records.length === 0) break;
+
+        console.log(`🔄 Procesando lote de ${records.length} items del journal...`);
+        const batch = records
+          .map(record => JSON.parse(record.data))
+          .sort((a, b) => a.priority - b.priority);
+
+        let failed = 0;
+        for (const item of batch) {
+          try {
+            await this.syncItem(item);
+          } catch (error) {
+            console.error('❌ Error sincronizando:', error);
+            item.attempts++;
+            if (item.attempts >= item.maxAttempts) {
+              console.log('⚠️ Máximo de intentos alcanzado, removiendo item');
+            } else {
+              failed++;
+              await journal.append(JOURNAL_QUEUE, JSON.stringify(item));
+            }
+          }
+        }
+
+        // Los fallidos ya fueron re-encolados al final, el lote completo se confirma
+        await journal.ack(JOURNAL_QUEUE, records[records.length - 1].seq);
+        if (failed > 0) {
+          await this.wait(Math.pow(2, Math.min(failed, 5)) * 1000);
+        }
+      }
+    } catch (error) {
+      console.error('❌ Error vaciando journal:', error);
+    }
+
+    this.isSyncing = false;
+  }
+
   // Procesar cola de sincronización
   async processSyncQueue() {
+    if (journal) {
+      await this.drainJournal();
+      return;
+    }
     if (this.isSyncing || this.syncQueue.length === 0) return;
 
     await this.loadSyncQueue();
@@ -326,6 +397,7 @@ class SmartSyncService {
   async checkConnection() {
     try {
       const state = await NetInfo.fetch();
+      this.linkQuality = state.details?.linkQuality?.quality || 'unknown';
       return state.isConnected && state.isInternetReachable;
     } catch {
       return false;
@@ -341,6 +413,9 @@ class SmartSyncService {
   clearSyncQueue() {
     this.syncQueue = [];
     AsyncStorage.removeItem('syncQueue');
+    if (journal) {
+      journal.clear(JOURNAL_QUEUE).catch(() => {});
+    }
     console.log('🗑️ Cola de sincronización limpiada');
   }
 }
@@ -1,9 +1,14 @@
 // WebSocketService.js - Sistema de Triple Redundancia
 import { io } from 'socket.io-client';
-import { Alert } from 'react-native';
+import { Alert, NativeModules, NativeEventEmitter, Platform } from 'react-native';
 
 const SOCKET_URL = 'wss://web-production-99844.up.railway.app';
 
+// En Android el socket vive en un servicio nativo (DriverSocketService) que no depende
+// del hilo de JS; socket.io desde JS queda como respaldo (iOS o módulo no disponible)
+const { DriverSocket } = NativeModules;
+const useNativeSocket = Platform.OS === 'android' && !!DriverSocket;
+
 class WebSocketService {
   constructor() {
     this.socket = null;
@@ -11,10 +16,63 @@ class WebSocketService {
     this.isConnected = false;
     this.onTripRequestCallback = null;
     this.heartbeatInterval = null;
+    this.nativeSubscription = null;
+    this.eventCallbacks = {};
+  }
+
+  // Conexión vía servicio nativo: las ofertas en background las muestra el propio servicio
+  connectNative(driverId) {
+    this.driverId = driverId;
+    console.log(`📡 Iniciando socket nativo para conductor ${driverId}...`);
+
+    if (!this.nativeSubscription) {
+      const emitter = new NativeEventEmitter(DriverSocket);
+      this.nativeSubscription = emitter.addListener('DriverSocketEvent', ({ event, data }) => {
+        let payload = null;
+        if (data) {
+          try {
+            payload = JSON.parse(data);
+          } catch (e) {
+            payload = data;
+          }
+        }
+        if (event === 'connect') {
+          console.log('✅ Socket nativo conectado');
+          this.isConnected = true;
+        } else if (event === 'disconnect') {
+          console.log('❌ Socket nativo desconectado:', payload);
+          this.isConnected = false;
+        } else if (event === 'new_trip_request') {
+          console.log('🚕 Nueva solicitud via socket nativo:', payload);
+          if (this.onTripRequestCallback) {
+            this.onTripRequestCallback({ ...payload, id: payload.id ?? payload.tripId });
+          }
+        } else if (this.eventCallbacks[event]) {
+          this.eventCallbacks[event](payload);
+        }
+      });
+    }
+
+    DriverSocket.start(driverId, null).catch(error => {
+      console.log('❌ Error iniciando socket nativo:', error.message);
+    });
+  }
+
+  // Escuchar otros eventos del socket (chat, etc.)
+  on(event, callback) {
+    this.eventCallbacks[event] = callback;
+    if (!useNativeSocket && this.socket) {
+      this.socket.on(event, callback);
+    }
   }
 
   // Conectar al WebSocket
   connect(driverId) {
+    if (useNativeSocket) {
+      this.connectNative(driverId);
+      return;
+    }
+
     if (this.socket && this.isConnected) {
       console.log('📡 WebSocket ya conectado');
       return;
@@ -89,6 +147,10 @@ class WebSocketService {
       this.isConnected = false;
     });
 
+    Object.keys(this.eventCallbacks).forEach(event => {
+      this.socket.on(event, this.eventCallbacks[event]);
+    });
+
     // Reconexión exitosa
     this.socket.on('reconnect', (attemptNumber) => {
       console.log(`🔄 Reconectado al intento ${attemptNumber}`);
@@ -120,6 +182,13 @@ class WebSocketService {
 
   // Desconectar
   disconnect() {
+    if (useNativeSocket) {
+      DriverSocket.stop().catch(() => {});
+      if (this.nativeSubscription) {
+        this.nativeSubscription.remove();
+        this.nativeSubscription = null;
+      }
+    }
     this.stopHeartbeat();
     if (this.socket) {
       this.socket.disconnect();
@@ -0,0 +1,338 @@
+package com.taxidriverapp;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * Cliente socket.io (Engine.IO v4, solo transporte websocket) nativo para el canal en
+ * tiempo real del conductor. Corre en su propio hilo, así que sigue vivo aunque Android
+ * congele el hilo de JS en segundo plano.
+ *
+ * - Reconexión con backoff exponencial + jitter (1s .. 60s), reiniciado al conectar o
+ *   cuando vuelve la red.
+ * - Heartbeat adaptativo: empieza en 30s y crece mientras el servidor confirme, hasta
+ *   encontrar el límite del NAT del operador; si la conexión muere en silencio se
+ *   retrocede al último intervalo que funcionó.
+ */
+public class DriverSocketClient {
+    private static final String TAG = "DriverSocketClient";
+
+    public static final String DEFAULT_URL = "wss://web-production-99844.up.railway.app";
+
+    private static final long MIN_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 60 * 1000;
+    private static final long MIN_HEARTBEAT_MS = 30 * 1000;
+    private static final long MAX_HEARTBEAT_MS = 4 * 60 * 1000;
+    private static final long HEARTBEAT_STEP_MS = 30 * 1000;
+    private static final int ACKS_BEFORE_GROWING = 3;
+
+    public interface Listener {
+        void onConnected();
+        void onDisconnected(String reason);
+        void onEvent(String event, Object data);
+    }
+
+    private final OkHttpClient httpClient;
+    private final Handler handler;
+    private final Listener listener;
+    private final Random random = new Random();
+    private final String url;
+    private final String driverId;
+
+    private WebSocket webSocket;
+    private boolean running = false;
+    private boolean connected = false;
+    private int attempts = 0;
+
+    // Valores que envía el servidor en el paquete "open"
+    private long serverPingIntervalMs = 25000;
+    private long serverPingTimeoutMs = 20000;
+    private long lastFrameAt = 0;
+
+    private long heartbeatMs = MIN_HEARTBEAT_MS;
+    private long lastGoodHeartbeatMs = MIN_HEARTBEAT_MS;
+    private boolean heartbeatLocked = false;
+    private int consecutiveAcks = 0;
+    private boolean awaitingAck = false;
+
+    public DriverSocketClient(String url, String driverId, Listener listener) {
+        this.url = url != null ? url : DEFAULT_URL;
+        this.driverId = driverId;
+        this.listener = listener;
+        this.httpClient = new OkHttpClient.Builder()
+            .readTimeout(0, TimeUnit.MILLISECONDS)
+            .connectTimeout(20, TimeUnit.SECONDS)
+            .build();
+        HandlerThread thread = new HandlerThread("DriverSocket");
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+    }
+
+    public void start() {
+        handler.post(() -> {
+            if (running) return;
+            running = true;
+            attempts = 0;
+            openSocket();
+        });
+    }
+
+    public void stop() {
+        handler.post(() -> {
+            running = false;
+            handler.removeCallbacksAndMessages(null);
+            closeSocket("stopped");
+            // Cada cliente tiene su OkHttpClient: liberar sus hilos y conexiones
+            httpClient.dispatcher().executorService().shutdown();
+            httpClient.connectionPool().evictAll();
+            handler.getLooper().quitSafely();
+        });
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public long getHeartbeatMs() {
+        return heartbeatMs;
+    }
+
+    // Hay otra red (volvió o hubo traspaso wifi/datos): el socket anterior ya no sirve aunque
+    // siga marcado como conectado, y no hay que esperar el backoff pendiente
+    public void onNetworkChanged() {
+        handler.post(() -> {
+            if (!running) return;
+            Log.d(TAG, "📶 Cambió la red, reconectando ya");
+            boolean wasConnected = connected;
+            handler.removeCallbacks(reconnectRunnable);
+            attempts = 0;
+            closeSocket("network_changed");
+            if (wasConnected) listener.onDisconnected("network_changed");
+            openSocket();
+        });
+    }
+
+    public void onNetworkLost() {
+        handler.post(() -> {
+            if (!running) return;
+            Log.d(TAG, "📵 Red perdida");
+            boolean wasConnected = connected;
+            handler.removeCallbacks(reconnectRunnable);
+            closeSocket("network_lost");
+            if (wasConnected) listener.onDisconnected("network_lost");
+        });
+    }
+
+    public void emit(String event, JSONObject data) {
+        handler.post(() -> {
+            if (webSocket == null || !connected) return;
+            emitNow(event, data);
+        });
+    }
+
+    private void openSocket() {
+        String socketUrl = url + "/socket.io/?EIO=4&transport=websocket";
+        Log.d(TAG, "📡 Conectando (intento " + (attempts + 1) + ")");
+        Request request = new Request.Builder().url(socketUrl).build();
+        webSocket = httpClient.newWebSocket(request, new SocketListener());
+    }
+
+    private void closeSocket(String reason) {
+        handler.removeCallbacks(heartbeatRunnable);
+        handler.removeCallbacks(watchdogRunnable);
+        if (webSocket != null) {
+            webSocket.close(1000, reason);
+            webSocket = null;
+        }
+        connected = false;
+        awaitingAck = false;
+    }
+
+    private void scheduleReconnect(String reason) {
+        boolean wasConnected = connected;
+        closeSocket(reason);
+        if (wasConnected) {
+            listener.onDisconnected(reason);
+        }
+        if (!running) return;
+
+        long backoff = Math.min(MAX_BACKOFF_MS, MIN_BACKOFF_MS << Math.min(attempts, 6));
+        long delay = backoff / 2 + random.nextInt((int) (backoff / 2) + 1);
+        attempts++;
+        Log.d(TAG, "🔄 Reconectando en " + delay + "ms (" + reason + ")");
+        handler.postDelayed(reconnectRunnable, delay);
+    }
+
+    private final Runnable reconnectRunnable = () -> {
+        if (running && !connected) openSocket();
+    };
+
+    private final Runnable heartbeatRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (!connected) return;
+            if (awaitingAck) {
+                // El anterior nunca llegó: el NAT probablemente cortó la conexión
+                onSilentDeath();
+                return;
+            }
+            emitNow("heartbeat", driverPayload());
+            awaitingAck = true;
+            handler.postDelayed(this, heartbeatMs);
+        }
+    };
+
+    // Si no llega ningún frame (ni el ping del servidor) la conexión está muerta
+    private final Runnable watchdogRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (!connected) return;
+            long silence = SystemClock.elapsedRealtime() - lastFrameAt;
+            if (silence > serverPingIntervalMs + serverPingTimeoutMs) {
+                onSilentDeath();
+                return;
+            }
+            handler.postDelayed(this, serverPingIntervalMs);
+        }
+    };
+
+    private void onHeartbeatAck() {
+        awaitingAck = false;
+        if (heartbeatLocked) return;
+        consecutiveAcks++;
+        if (consecutiveAcks >= ACKS_BEFORE_GROWING && heartbeatMs < MAX_HEARTBEAT_MS) {
+            lastGoodHeartbeatMs = heartbeatMs;
+            heartbeatMs = Math.min(MAX_HEARTBEAT_MS, heartbeatMs + HEARTBEAT_STEP_MS);
+            consecutiveAcks = 0;
+            Log.d(TAG, "💓 Heartbeat ampliado a " + heartbeatMs + "ms");
+        }
+    }
+
+    private void onSilentDeath() {
+        if (!heartbeatLocked && heartbeatMs > lastGoodHeartbeatMs) {
+            heartbeatMs = lastGoodHeartbeatMs;
+            heartbeatLocked = true;
+            Log.d(TAG, "💔 Conexión muerta en silencio, heartbeat fijado en " + heartbeatMs + "ms");
+        }
+        consecutiveAcks = 0;
+        scheduleReconnect("heartbeat_timeout");
+    }
+
+    private void handleFrame(String text) {
+        lastFrameAt = SystemClock.elapsedRealtime();
+        if (text.isEmpty()) return;
+
+        char engineType = text.charAt(0);
+        switch (engineType) {
+            case '0': // open
+                try {
+                    JSONObject open = new JSONObject(text.substring(1));
+                    serverPingIntervalMs = open.optLong("pingInterval", serverPingIntervalMs);
+                    serverPingTimeoutMs = open.optLong("pingTimeout", serverPingTimeoutMs);
+                } catch (Exception e) {
+                    Log.e(TAG, "❌ Paquete open inválido: " + e.getMessage());
+                }
+                webSocket.send("40");
+                break;
+            case '1': // close
+                scheduleReconnect("server_close");
+                break;
+            case '2': // ping del servidor
+                webSocket.send("3");
+                break;
+            case '4': // mensaje socket.io
+                handleSocketIoPacket(text.substring(1));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void handleSocketIoPacket(String packet) {
+        if (packet.isEmpty()) return;
+        char type = packet.charAt(0);
+        if (type == '0') {
+            connected = true;
+            attempts = 0;
+            consecutiveAcks = 0;
+            Log.d(TAG, "✅ Socket conectado");
+            emitNow("driver_connect", driverPayload());
+            handler.postDelayed(heartbeatRunnable, heartbeatMs);
+            handler.postDelayed(watchdogRunnable, serverPingIntervalMs);
+            listener.onConnected();
+        } else if (type == '1') {
+            scheduleReconnect("server_disconnect");
+        } else if (type == '2') {
+            try {
+                JSONArray args = new JSONArray(packet.substring(packet.indexOf('[')));
+                String event = args.getString(0);
+                Object data = args.length() > 1 ? args.get(1) : null;
+                if ("heartbeat_ack".equals(event)) {
+                    onHeartbeatAck();
+                    return;
+                }
+                listener.onEvent(event, data);
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Evento inválido: " + e.getMessage());
+            }
+        } else if (type == '4') {
+            Log.e(TAG, "❌ Error de conexión socket.io: " + packet.substring(1));
+            scheduleReconnect("connect_error");
+        }
+    }
+
+    private void emitNow(String event, JSONObject data) {
+        JSONArray packet = new JSONArray();
+        packet.put(event);
+        packet.put(data);
+        webSocket.send("42" + packet.toString());
+    }
+
+    private JSONObject driverPayload() {
+        JSONObject data = new JSONObject();
+        try {
+            data.put("driverId", driverId);
+        } catch (Exception ignored) {
+        }
+        return data;
+    }
+
+    private class SocketListener extends WebSocketListener {
+        @Override
+        public void onMessage(WebSocket socket, String text) {
+            handler.post(() -> {
+                if (socket == webSocket) handleFrame(text);
+            });
+        }
+
+        @Override
+        public void onClosed(WebSocket socket, int code, String reason) {
+            handler.post(() -> {
+                if (socket == webSocket) scheduleReconnect("closed");
+            });
+        }
+
+        @Override
+        public void onFailure(WebSocket socket, Throwable t, Response response) {
+            handler.post(() -> {
+                if (socket != webSocket) return;
+                Log.e(TAG, "❌ Falla WebSocket: " + t.getMessage());
+                scheduleReconnect("failure");
+            });
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.taxidriverapp;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableMap;
+
+import org.json.JSONObject;
+
+public class DriverSocketModule extends ReactContextBaseJavaModule {
+
+    public DriverSocketModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return "DriverSocket";
+    }
+
+    // url es opcional (null = backend de producción); permite apuntar a un servidor local
+    @ReactMethod
+    public void start(String driverId, String url, Promise promise) {
+        try {
+            DriverSocketService.start(getReactApplicationContext(), driverId, url);
+            promise.resolve(true);
+        } catch (Exception e) {
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void stop(Promise promise) {
+        try {
+            DriverSocketService.stop(getReactApplicationContext());
+            promise.resolve(true);
+        } catch (Exception e) {
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void emit(String event, String jsonData, Promise promise) {
+        try {
+            DriverSocketService service = DriverSocketService.getInstance();
+            if (service == null) {
+                promise.resolve(false);
+                return;
+            }
+            service.emit(event, jsonData != null ? new JSONObject(jsonData) : new JSONObject());
+            promise.resolve(true);
+        } catch (Exception e) {
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void getStatus(Promise promise) {
+        DriverSocketService service = DriverSocketService.getInstance();
+        WritableMap status = Arguments.createMap();
+        status.putBoolean("running", service != null);
+        status.putBoolean("isConnected", service != null && service.isConnected());
+        status.putDouble("heartbeatMs", service != null ? service.getHeartbeatMs() : 0);
+        promise.resolve(status);
+    }
+
+    // Requeridos por NativeEventEmitter
+    @ReactMethod
+    public void addListener(String eventName) {
+    }
+
+    @ReactMethod
+    public void removeListeners(double count) {
+    }
+}
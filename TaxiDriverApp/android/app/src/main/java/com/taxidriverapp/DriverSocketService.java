@@ -0,0 +1,329 @@
+package com.taxidriverapp;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Build;
+import android.os.IBinder;
+import android.util.Log;
+
+import androidx.core.app.NotificationCompat;
+
+import com.facebook.react.ReactApplication;
+import com.facebook.react.ReactHost;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.common.LifecycleState;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Servicio en primer plano que mantiene el socket del conductor mientras está en línea.
+ * Las ofertas de viaje van directo a TripDataStore y a la notificación full-screen del push (sin pasar por JS)
+ * y el resto de eventos (chat, etc.) se reenvían a JS como "DriverSocketEvent".
+ */
+public class DriverSocketService extends Service {
+    private static final String TAG = "DriverSocketService";
+    private static final String CHANNEL_ID = "driver_socket_channel";
+    private static final int NOTIFICATION_ID = 1004;
+
+    public static final String EXTRA_DRIVER_ID = "driverId";
+    public static final String EXTRA_URL = "url";
+    public static final String JS_EVENT = "DriverSocketEvent";
+
+    private static DriverSocketService instance;
+
+    private DriverSocketClient client;
+    private ConnectivityManager.NetworkCallback networkCallback;
+    // Red por la que va el socket actual (null tras perderla)
+    private volatile Network currentNetwork;
+
+    public static void start(Context context, String driverId, String url) {
+        Intent intent = new Intent(context, DriverSocketService.class);
+        intent.putExtra(EXTRA_DRIVER_ID, driverId);
+        intent.putExtra(EXTRA_URL, url);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            context.startForegroundService(intent);
+        } else {
+            context.startService(intent);
+        }
+    }
+
+    public static void stop(Context context) {
+        context.stopService(new Intent(context, DriverSocketService.class));
+    }
+
+    public static synchronized DriverSocketService getInstance() {
+        return instance;
+    }
+
+    public boolean isConnected() {
+        return client != null && client.isConnected();
+    }
+
+    public long getHeartbeatMs() {
+        return client != null ? client.getHeartbeatMs() : 0;
+    }
+
+    public void emit(String event, JSONObject data) {
+        if (client != null) client.emit(event, data);
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        synchronized (DriverSocketService.class) {
+            instance = this;
+        }
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        startInForeground();
+
+        String driverId = intent != null ? intent.getStringExtra(EXTRA_DRIVER_ID) : null;
+        String url = intent != null ? intent.getStringExtra(EXTRA_URL) : null;
+        if (driverId == null) {
+            Log.e(TAG, "❌ Sin driverId, deteniendo servicio");
+            stopSelf();
+            return START_NOT_STICKY;
+        }
+
+        if (client != null) {
+            client.stop();
+        }
+        client = new DriverSocketClient(url, driverId, new ClientListener(driverId));
+        client.start();
+        registerNetworkCallback();
+
+        Log.d(TAG, "🚀 Socket nativo iniciado para conductor " + driverId);
+        return START_REDELIVER_INTENT;
+    }
+
+    private void startInForeground() {
+        NotificationManager notificationManager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                CHANNEL_ID,
+                "Conexión en tiempo real",
+                NotificationManager.IMPORTANCE_MIN
+            );
+            channel.setDescription("Mantiene la conexión para recibir viajes al instante");
+            notificationManager.createNotificationChannel(channel);
+        }
+
+        Notification notification = new NotificationCompat.Builder(this, CHANNEL_ID)
+            .setSmallIcon(android.R.drawable.ic_menu_mylocation)
+            .setContentTitle("🚕 En línea")
+            .setContentText("Esperando solicitudes de viaje")
+            .setPriority(NotificationCompat.PRIORITY_MIN)
+            .setOngoing(true)
+            .build();
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
+            startForeground(NOTIFICATION_ID, notification, ServiceInfo.FOREGROUND_SERVICE_TYPE_REMOTE_MESSAGING);
+        } else {
+            startForeground(NOTIFICATION_ID, notification);
+        }
+    }
+
+    private void registerNetworkCallback() {
+        if (networkCallback != null) return;
+        ConnectivityManager connectivityManager = (ConnectivityManager) getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) return;
+
+        // El primer onAvailable llega justo después de registrar, con la red por la que ya se
+        // está conectando el cliente: no debe cortar ese handshake
+        currentNetwork = connectivityManager.getActiveNetwork();
+        networkCallback = new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(Network network) {
+                if (network.equals(currentNetwork)) return;
+                currentNetwork = network;
+                if (client != null) client.onNetworkChanged();
+            }
+
+            @Override
+            public void onLost(Network network) {
+                if (network.equals(currentNetwork)) currentNetwork = null;
+                if (client != null && connectivityManager.getActiveNetwork() == null) {
+                    client.onNetworkLost();
+                }
+            }
+        };
+        try {
+            connectivityManager.registerDefaultNetworkCallback(networkCallback);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error registrando callback de red: " + e.getMessage());
+            networkCallback = null;
+        }
+    }
+
+    private void unregisterNetworkCallback() {
+        if (networkCallback == null) return;
+        ConnectivityManager connectivityManager = (ConnectivityManager) getSystemService(Context.CONNECTIVITY_SERVICE);
+        try {
+            connectivityManager.unregisterNetworkCallback(networkCallback);
+        } catch (Exception ignored) {
+        }
+        networkCallback = null;
+    }
+
+    private class ClientListener implements DriverSocketClient.Listener {
+        private final String driverId;
+
+        ClientListener(String driverId) {
+            this.driverId = driverId;
+        }
+
+        @Override
+        public void onConnected() {
+            sendToJs("connect", null);
+        }
+
+        @Override
+        public void onDisconnected(String reason) {
+            sendToJs("disconnect", reason);
+        }
+
+        @Override
+        public void onEvent(String event, Object data) {
+            if ("new_trip_request".equals(event) && data instanceof JSONObject) {
+                handleTripOffer((JSONObject) data);
+                return;
+            }
+            sendToJs(event, data);
+        }
+
+        private void handleTripOffer(JSONObject trip) {
+            String tripId = trip.optString("tripId", trip.optString("id", ""));
+            Log.d(TAG, "🚕 Oferta via socket nativo: " + tripId);
+
+            try {
+                JSONObject ack = new JSONObject();
+                ack.put("tripId", tripId);
+                ack.put("driverId", driverId);
+                client.emit("trip_request_ack", ack);
+            } catch (Exception ignored) {
+            }
+
+            // Si el push ya la mostró (o el viaje fue cancelado) no repetir; el push que llegue
+            // después no se descarta, porque trae los datos completos
+            if (!FcmEventRouter.acceptSocketOffer(tripId)) return;
+            Map<String, String> data = toStringMap(trip);
+            data.put("type", FcmEventRouter.TYPE_NEW_TRIP);
+            data.put("tripId", tripId);
+            if (!data.containsKey("estimatedPrice") && data.containsKey("price")) {
+                data.put("estimatedPrice", data.get("price"));
+            }
+
+            if (isAppInForeground()) {
+                // React Native está visible: que JS muestre su modal como antes
+                sendToJs("new_trip_request", trip);
+                return;
+            }
+
+            StartupMarkers.begin(StartupMarkers.OFFER_RECEIVED);
+            TripDataStore.saveTripData(
+                getApplicationContext(),
+                tripId,
+                data.get("user"),
+                data.get("phone"),
+                data.get("pickup"),
+                data.get("destination"),
+                data.get("estimatedPrice"),
+                data.get("distance"),
+                data.get("paymentMethod"),
+                data.get("pickupLat"),
+                data.get("pickupLng"),
+                data.get("destinationLat"),
+                data.get("destinationLng"),
+                data.get("vehicleType"),
+                data.get("additionalStops")
+            );
+            ReactPrewarmer.prewarm(getApplicationContext());
+
+            // Un servicio no puede abrir una Activity desde background en Android 10+: la misma
+            // notificación full-screen (con wake lock) que usa el push
+            MyFirebaseMessagingService.showTripOfferNotification(getApplicationContext(), data, false);
+        }
+    }
+
+    private Map<String, String> toStringMap(JSONObject json) {
+        Map<String, String> map = new HashMap<>();
+        Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            Object value = json.opt(key);
+            if (value != null && value != JSONObject.NULL) {
+                map.put(key, String.valueOf(value));
+            }
+        }
+        return map;
+    }
+
+    // data viaja como JSON: los strings (p. ej. el motivo de desconexión) van entre comillas
+    private void sendToJs(String event, Object data) {
+        ReactContext reactContext = getReactContext();
+        if (reactContext == null || !reactContext.hasActiveReactInstance()) return;
+
+        WritableMap params = Arguments.createMap();
+        params.putString("event", event);
+        if (data == null || data == JSONObject.NULL) {
+            params.putNull("data");
+        } else if (data instanceof String) {
+            params.putString("data", JSONObject.quote((String) data));
+        } else {
+            params.putString("data", data.toString());
+        }
+        reactContext
+            .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+            .emit(JS_EVENT, params);
+    }
+
+    private ReactContext getReactContext() {
+        Context appContext = getApplicationContext();
+        if (!(appContext instanceof ReactApplication)) return null;
+        ReactHost reactHost = ((ReactApplication) appContext).getReactHost();
+        return reactHost != null ? reactHost.getCurrentReactContext() : null;
+    }
+
+    // React Native está visible si su Activity está en RESUMED (mismo estado que usa onHostResume)
+    private boolean isAppInForeground() {
+        ReactContext reactContext = getReactContext();
+        return reactContext != null
+            && reactContext.hasActiveReactInstance()
+            && reactContext.getLifecycleState() == LifecycleState.RESUMED;
+    }
+
+    @Override
+    public void onDestroy() {
+        unregisterNetworkCallback();
+        if (client != null) {
+            client.stop();
+            client = null;
+        }
+        synchronized (DriverSocketService.class) {
+            if (instance == this) instance = null;
+        }
+        Log.d(TAG, "⏹️ Socket nativo detenido");
+        super.onDestroy();
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+}
@@ -0,0 +1,101 @@
+package com.taxidriverapp;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.LifecycleEventListener;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import java.util.Map;
+
+public class DriverSyncModule extends ReactContextBaseJavaModule implements LifecycleEventListener {
+    public static final String JS_EVENT = "DriverSyncSlice";
+
+    private final DriverSyncScheduler scheduler;
+
+    public DriverSyncModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        scheduler = new DriverSyncScheduler(reactContext, null, this::sendSlice);
+        reactContext.addLifecycleEventListener(this);
+    }
+
+    @Override
+    public String getName() {
+        return "DriverSync";
+    }
+
+    @ReactMethod
+    public void start(String driverId) {
+        scheduler.start(driverId);
+    }
+
+    @ReactMethod
+    public void stop() {
+        scheduler.stop();
+    }
+
+    @ReactMethod
+    public void resync() {
+        scheduler.resync();
+    }
+
+    // null cuando no hay viaje activo
+    @ReactMethod
+    public void setTripId(String tripId) {
+        scheduler.setTripId(tripId);
+    }
+
+    @ReactMethod
+    public void getStats(Promise promise) {
+        WritableMap stats = Arguments.createMap();
+        for (Map.Entry<String, Object> entry : scheduler.getStats().entrySet()) {
+            stats.putDouble(entry.getKey(), ((Number) entry.getValue()).doubleValue());
+        }
+        promise.resolve(stats);
+    }
+
+    // Requeridos por NativeEventEmitter
+    @ReactMethod
+    public void addListener(String eventName) {
+    }
+
+    @ReactMethod
+    public void removeListeners(double count) {
+    }
+
+    private void sendSlice(String slice, String json) {
+        ReactApplicationContext reactContext = getReactApplicationContext();
+        if (!reactContext.hasActiveReactInstance()) return;
+
+        WritableMap params = Arguments.createMap();
+        params.putString("slice", slice);
+        params.putString("data", json);
+        reactContext
+            .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+            .emit(JS_EVENT, params);
+    }
+
+    @Override
+    public void onHostResume() {
+        scheduler.setForeground(true);
+    }
+
+    @Override
+    public void onHostPause() {
+        scheduler.setForeground(false);
+    }
+
+    @Override
+    public void onHostDestroy() {
+        scheduler.setForeground(false);
+    }
+
+    @Override
+    public void invalidate() {
+        scheduler.stop();
+        super.invalidate();
+    }
+}
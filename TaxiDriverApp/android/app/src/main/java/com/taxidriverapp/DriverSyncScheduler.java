@@ -0,0 +1,192 @@
+package com.taxidriverapp;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.PowerManager;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Reemplaza los intervalos de JS (status, suspensión, comunicados, chat) por un solo
+ * request condicional a /api/drivers/:id/sync por tick. El servidor responde 304 si nada
+ * cambió (If-None-Match); si cambió, solo se avisa a JS de las secciones distintas.
+ *
+ * El intervalo se adapta al estado: en viaje con la app visible es rápido (chat), en
+ * segundo plano es lento y con la pantalla apagada casi se detiene.
+ */
+public class DriverSyncScheduler {
+    private static final String TAG = "DriverSyncScheduler";
+
+    public static final String DEFAULT_BASE_URL = "https://web-production-99844.up.railway.app";
+
+    private static final long ON_TRIP_MS = 4 * 1000;
+    private static final long FOREGROUND_MS = 15 * 1000;
+    private static final long ON_TRIP_BACKGROUND_MS = 15 * 1000;
+    private static final long IDLE_MS = 60 * 1000;
+    private static final long SCREEN_OFF_MS = 3 * 60 * 1000;
+
+    public interface Listener {
+        void onSliceChanged(String slice, String json);
+    }
+
+    private final Context context;
+    private final Listener listener;
+    private final String baseUrl;
+    private final OkHttpClient httpClient;
+    private final Handler handler;
+
+    private final Map<String, String> lastSlices = new HashMap<>();
+    private String driverId;
+    private String tripId;
+    private String etag;
+    private boolean foreground = true;
+    private boolean running = false;
+
+    private int requests = 0;
+    private int notModified = 0;
+
+    public DriverSyncScheduler(Context context, String baseUrl, Listener listener) {
+        this.context = context.getApplicationContext();
+        this.baseUrl = baseUrl != null ? baseUrl : DEFAULT_BASE_URL;
+        this.listener = listener;
+        this.httpClient = new OkHttpClient.Builder()
+            .connectTimeout(10, TimeUnit.SECONDS)
+            .readTimeout(10, TimeUnit.SECONDS)
+            .build();
+        HandlerThread thread = new HandlerThread("DriverSync");
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+    }
+
+    public void start(String driverId) {
+        handler.post(() -> {
+            this.driverId = driverId;
+            // Quien se suscribe ahora no vio los slices anteriores: el primer sync los emite todos
+            resetState();
+            running = true;
+            reschedule(0);
+        });
+    }
+
+    /**
+     * Vuelve a emitir todos los slices en el próximo sync, aunque no hayan cambiado, para
+     * un listener que se suscribe tarde (p. ej. el chat al cerrar su modal).
+     */
+    public void resync() {
+        handler.post(() -> {
+            resetState();
+            if (running) reschedule(0);
+        });
+    }
+
+    public void stop() {
+        handler.post(() -> {
+            running = false;
+            handler.removeCallbacks(tickRunnable);
+        });
+    }
+
+    public void setTripId(String tripId) {
+        handler.post(() -> {
+            if (tripId == null ? this.tripId == null : tripId.equals(this.tripId)) return;
+            this.tripId = tripId;
+            // El cuerpo cambia con el viaje: el ETag anterior ya no sirve
+            etag = null;
+            lastSlices.remove("chat");
+            if (running) reschedule(0);
+        });
+    }
+
+    public void setForeground(boolean foreground) {
+        handler.post(() -> {
+            boolean changed = this.foreground != foreground;
+            this.foreground = foreground;
+            // Al volver al frente sincronizar enseguida en vez de esperar el tick lento
+            if (changed && foreground && running) reschedule(0);
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("requests", requests);
+        stats.put("notModified", notModified);
+        stats.put("intervalMs", currentIntervalMs());
+        return stats;
+    }
+
+    private void resetState() {
+        etag = null;
+        lastSlices.clear();
+    }
+
+    private void reschedule(long delayMs) {
+        handler.removeCallbacks(tickRunnable);
+        handler.postDelayed(tickRunnable, delayMs);
+    }
+
+    private long currentIntervalMs() {
+        boolean onTrip = tripId != null;
+        PowerManager pm = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        boolean screenOn = pm == null || pm.isInteractive();
+
+        if (!screenOn) return onTrip ? ON_TRIP_BACKGROUND_MS : SCREEN_OFF_MS;
+        if (onTrip) return foreground ? ON_TRIP_MS : ON_TRIP_BACKGROUND_MS;
+        return foreground ? FOREGROUND_MS : IDLE_MS;
+    }
+
+    private final Runnable tickRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (!running || driverId == null) return;
+            tick();
+            if (running) reschedule(currentIntervalMs());
+        }
+    };
+
+    private void tick() {
+        String url = baseUrl + "/api/drivers/" + driverId + "/sync";
+        if (tripId != null) url += "?tripId=" + tripId;
+
+        Request.Builder builder = new Request.Builder().url(url);
+        if (etag != null) builder.header("If-None-Match", etag);
+
+        requests++;
+        try (Response response = httpClient.newCall(builder.build()).execute()) {
+            if (response.code() == 304) {
+                notModified++;
+                return;
+            }
+            if (!response.isSuccessful() || response.body() == null) {
+                Log.d(TAG, "⚠️ Sync respondió " + response.code());
+                return;
+            }
+            etag = response.header("ETag");
+
+            JSONObject slices = new JSONObject(response.body().string()).optJSONObject("slices");
+            if (slices == null) return;
+
+            Iterator<String> names = slices.keys();
+            while (names.hasNext()) {
+                String name = names.next();
+                String json = String.valueOf(slices.opt(name));
+                if (json.equals(lastSlices.get(name))) continue;
+                lastSlices.put(name, json);
+                listener.onSliceChanged(name, json);
+            }
+        } catch (Exception e) {
+            // Silencioso, igual que el polling de JS: el próximo tick reintenta
+            Log.d(TAG, "📡 Sync falló: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.taxidriverapp;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Enrutador de mensajes FCM: descarta entregas repetidas, ordena los eventos de cada viaje
+ * (una cancelación deja una "lápida" que bloquea solicitudes posteriores del mismo viaje)
+ * y despacha cada tipo a su handler registrado.
+ *
+ * Es estático porque Firebase puede crear una instancia nueva del servicio por mensaje,
+ * y el caché debe sobrevivir entre ellas mientras viva el proceso.
+ */
+public class FcmEventRouter {
+    private static final String TAG = "FcmEventRouter";
+
+    public static final String TYPE_NEW_TRIP = "NEW_TRIP_REQUEST";
+    public static final String TYPE_TRIP_CANCELLED = "trip_cancelled";
+
+    private static final int MAX_SEEN_IDS = 200;
+    private static final int MAX_TRIPS = 100;
+    private static final long TOMBSTONE_TTL_MS = 10 * 60 * 1000;
+    // Ventana en la que una segunda solicitud del mismo viaje se considera reintento
+    // (pasado este tiempo puede ser una reasignación legítima al mismo conductor)
+    private static final long OFFER_RETRY_WINDOW_MS = 60 * 1000;
+
+    public interface Handler {
+        void handle(Map<String, String> data);
+    }
+
+    private static final Map<String, Handler> handlers = new HashMap<>();
+
+    // LRU acotados: ids de mensajes ya vistos y estado de cada viaje
+    private static final Map<String, Boolean> seenIds = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_SEEN_IDS;
+        }
+    };
+    private static final Map<String, Long> offeredTrips = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_TRIPS;
+        }
+    };
+    private static final Map<String, Long> cancelledTrips = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_TRIPS;
+        }
+    };
+    // Ofertas mostradas por el socket: aparte de offeredTrips para que el push del mismo
+    // viaje, que trae coordenadas y teléfono, no se descarte como reintento
+    private static final Map<String, Long> socketOffers = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_TRIPS;
+        }
+    };
+
+    public static synchronized void register(String type, Handler handler) {
+        handlers.put(type, handler);
+    }
+
+    /** Quita el handler solo si sigue siendo el registrado (otra instancia pudo reemplazarlo). */
+    public static synchronized void unregister(String type, Handler handler) {
+        if (handlers.get(type) == handler) {
+            handlers.remove(type);
+        }
+    }
+
+    /**
+     * Despacha un mensaje. Devuelve false si fue descartado (duplicado, viaje ya cancelado
+     * o tipo sin handler).
+     */
+    public static boolean dispatch(String messageId, Map<String, String> data) {
+        if (!accept(messageId, data)) return false;
+
+        String type = data.get("type");
+        Handler handler;
+        synchronized (FcmEventRouter.class) {
+            handler = handlers.get(type);
+        }
+        if (handler == null) {
+            Log.d(TAG, "⚠️ Sin handler para type: " + type);
+            return false;
+        }
+        handler.handle(data);
+        return true;
+    }
+
+    /** Solo aplica el filtro (duplicados y lápidas) sin despachar. */
+    public static synchronized boolean accept(String messageId, Map<String, String> data) {
+        String type = data.get("type");
+        String tripId = data.get("tripId");
+
+        // Sin messageId (p. ej. eventos del socket) no hay con qué deduplicar: dos comunicados
+        // distintos tendrían la misma clave. Las ofertas repetidas las filtra igual offeredTrips.
+        if (messageId != null) {
+            if (seenIds.containsKey(messageId)) {
+                Log.d(TAG, "🔁 Mensaje duplicado ignorado: " + messageId);
+                return false;
+            }
+            seenIds.put(messageId, Boolean.TRUE);
+        }
+
+        if (tripId != null && !tripId.isEmpty()) {
+            if (TYPE_TRIP_CANCELLED.equals(type)) {
+                cancelledTrips.put(tripId, SystemClock.elapsedRealtime());
+            } else if (TYPE_NEW_TRIP.equals(type)) {
+                if (isTombstoned(tripId)) {
+                    Log.d(TAG, "🪦 Solicitud de viaje ya cancelado ignorada: " + tripId);
+                    return false;
+                }
+                Long offeredAt = offeredTrips.get(tripId);
+                if (offeredAt != null && SystemClock.elapsedRealtime() - offeredAt < OFFER_RETRY_WINDOW_MS) {
+                    Log.d(TAG, "🔁 Viaje ya ofrecido, ignorando reintento: " + tripId);
+                    return false;
+                }
+                offeredTrips.put(tripId, SystemClock.elapsedRealtime());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Filtro de las ofertas del socket nativo: descarta viajes cancelados, los que ya mostró
+     * el push y los reintentos del propio socket, sin marcar el viaje como ofrecido por push.
+     */
+    public static synchronized boolean acceptSocketOffer(String tripId) {
+        if (tripId == null || tripId.isEmpty()) return true;
+        if (isTombstoned(tripId)) {
+            Log.d(TAG, "🪦 Oferta por socket de viaje ya cancelado ignorada: " + tripId);
+            return false;
+        }
+        long now = SystemClock.elapsedRealtime();
+        Long pushedAt = offeredTrips.get(tripId);
+        Long socketAt = socketOffers.get(tripId);
+        if ((pushedAt != null && now - pushedAt < OFFER_RETRY_WINDOW_MS)
+            || (socketAt != null && now - socketAt < OFFER_RETRY_WINDOW_MS)) {
+            Log.d(TAG, "🔁 Viaje ya ofrecido, ignorando oferta por socket: " + tripId);
+            return false;
+        }
+        socketOffers.put(tripId, now);
+        return true;
+    }
+
+    /** True si el socket mostró la oferta de este viaje hace menos de la ventana de reintento. */
+    public static synchronized boolean shownBySocket(String tripId) {
+        if (tripId == null) return false;
+        Long socketAt = socketOffers.get(tripId);
+        return socketAt != null && SystemClock.elapsedRealtime() - socketAt < OFFER_RETRY_WINDOW_MS;
+    }
+
+    private static boolean isTombstoned(String tripId) {
+        Long cancelledAt = cancelledTrips.get(tripId);
+        if (cancelledAt == null) return false;
+        if (SystemClock.elapsedRealtime() - cancelledAt > TOMBSTONE_TTL_MS) {
+            cancelledTrips.remove(tripId);
+            return false;
+        }
+        return true;
+    }
+}
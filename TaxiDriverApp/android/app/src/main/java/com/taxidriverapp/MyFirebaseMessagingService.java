@@ -28,71 +28,93 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
     private static final String CHANNEL_ID = "trip_requests_channel";
     private static final int NOTIFICATION_ID = 1001;
 
+    private static final String TYPE_BROADCAST = "BROADCAST";
+
+    // Referencias fijas para poder quitarlas del router en onDestroy
+    private final FcmEventRouter.Handler cancellationHandler = this::handleTripCancellation;
+    private final FcmEventRouter.Handler broadcastHandler = this::handleBroadcastMessage;
+    private final FcmEventRouter.Handler newTripHandler = this::handleNewTripRequest;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // Firebase puede crear una instancia nueva por mensaje: re-registrar con la actual
+        FcmEventRouter.register(FcmEventRouter.TYPE_TRIP_CANCELLED, cancellationHandler);
+        FcmEventRouter.register(TYPE_BROADCAST, broadcastHandler);
+        FcmEventRouter.register(FcmEventRouter.TYPE_NEW_TRIP, newTripHandler);
+    }
+
+    @Override
+    public void onDestroy() {
+        // El router es estático: no debe retener un servicio ya destruido
+        FcmEventRouter.unregister(FcmEventRouter.TYPE_TRIP_CANCELLED, cancellationHandler);
+        FcmEventRouter.unregister(TYPE_BROADCAST, broadcastHandler);
+        FcmEventRouter.unregister(FcmEventRouter.TYPE_NEW_TRIP, newTripHandler);
+        super.onDestroy();
+    }
+
     @Override
     public void onMessageReceived(RemoteMessage remoteMessage) {
         super.onMessageReceived(remoteMessage);
 
         Map<String, String> data = remoteMessage.getData();
-        String type = data.get("type");
-
-        Log.d(TAG, "📨 Mensaje FCM recibido, type: " + type);
+        Log.d(TAG, "📨 Mensaje FCM recibido, type: " + data.get("type"));
 
-        if ("trip_cancelled".equals(type)) {
-            Log.d(TAG, "❌ Viaje cancelado por el usuario");
-            handleTripCancellation(data);
-            return;
-        }
+        FcmEventRouter.dispatch(remoteMessage.getMessageId(), data);
+    }
 
-        // Manejar comunicados masivos (BROADCAST)
-        if ("BROADCAST".equals(type)) {
-            Log.d(TAG, "📢 Comunicado masivo recibido");
-            handleBroadcastMessage(remoteMessage);
+    private void handleNewTripRequest(Map<String, String> data) {
+        Log.d(TAG, "🚕 Nueva solicitud de viaje recibida");
+        StartupMarkers.begin(StartupMarkers.OFFER_RECEIVED);
+
+        Log.d(TAG, "📦 Datos recibidos del FCM:");
+        Log.d(TAG, "   tripId: " + data.get("tripId"));
+        Log.d(TAG, "   user: " + data.get("user"));
+        Log.d(TAG, "   pickup: " + data.get("pickup"));
+        Log.d(TAG, "   destination: " + data.get("destination"));
+        Log.d(TAG, "   estimatedPrice: " + data.get("estimatedPrice"));
+
+        // IMPORTANTE: Guardar datos ANTES de mostrar la Activity
+        TripDataStore.saveTripData(
+            getApplicationContext(),
+            data.get("tripId"),
+            data.get("user"),
+            data.get("phone"),
+            data.get("pickup"),
+            data.get("destination"),
+            data.get("estimatedPrice"),
+            data.get("distance"),
+            data.get("paymentMethod"),
+            data.get("pickupLat"),
+            data.get("pickupLng"),
+            data.get("destinationLat"),
+            data.get("destinationLng"),
+            data.get("vehicleType"),
+            data.get("additionalStops")
+        );
+
+        // Arrancar React mientras el conductor decide, para que aceptar sea inmediato
+        ReactPrewarmer.prewarm(getApplicationContext());
+
+        if (isAppInForeground()) {
+            Log.d(TAG, "📱 App en foreground - React Native manejará");
             return;
         }
-
-        if ("NEW_TRIP_REQUEST".equals(type)) {
-            Log.d(TAG, "🚕 Nueva solicitud de viaje recibida");
-            
-            Log.d(TAG, "📦 Datos recibidos del FCM:");
-            Log.d(TAG, "   tripId: " + data.get("tripId"));
-            Log.d(TAG, "   user: " + data.get("user"));
-            Log.d(TAG, "   pickup: " + data.get("pickup"));
-            Log.d(TAG, "   destination: " + data.get("destination"));
-            Log.d(TAG, "   estimatedPrice: " + data.get("estimatedPrice"));
-            
-            // IMPORTANTE: Guardar datos ANTES de mostrar la Activity
-            TripDataStore.saveTripData(
-                getApplicationContext(),
-                data.get("tripId"),
-                data.get("user"),
-                data.get("phone"),
-                data.get("pickup"),
-                data.get("destination"),
-                data.get("estimatedPrice"),
-                data.get("distance"),
-                data.get("paymentMethod"),
-                data.get("pickupLat"),
-                data.get("pickupLng"),
-                data.get("destinationLat"),
-                data.get("destinationLng"),
-                data.get("vehicleType"),
-                data.get("additionalStops")
-            );
-            
-            showFullScreenNotification(data);
-        }
+        // Si el socket ya la mostró, el push solo completa los datos (coordenadas, teléfono)
+        // y reemplaza la notificación sin volver a sonar
+        boolean shownBySocket = FcmEventRouter.shownBySocket(data.get("tripId"));
+        showTripOfferNotification(getApplicationContext(), data, shownBySocket);
     }
 
-    private void showFullScreenNotification(Map<String, String> data) {
+    /**
+     * Notificación de oferta con full-screen intent y wake lock: la única forma de abrir
+     * TripRequestActivity desde background en Android 10+. La usa también el socket nativo.
+     */
+    static void showTripOfferNotification(Context context, Map<String, String> data, boolean update) {
         try {
-            if (isAppInForeground()) {
-                Log.d(TAG, "📱 App en foreground - React Native manejará");
-                return;
-            }
-
             Log.d(TAG, "📱 App en background - Mostrando pantalla nativa");
 
-            PowerManager pm = (PowerManager) getSystemService(Context.POWER_SERVICE);
+            PowerManager pm = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
             PowerManager.WakeLock wakeLock = pm.newWakeLock(
                 PowerManager.FULL_WAKE_LOCK |
                 PowerManager.ACQUIRE_CAUSES_WAKEUP |
@@ -101,9 +123,9 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
             );
             wakeLock.acquire(60000);
 
-            createNotificationChannel();
+            createNotificationChannel(context);
 
-            Intent fullScreenIntent = new Intent(this, TripRequestActivity.class);
+            Intent fullScreenIntent = new Intent(context, TripRequestActivity.class);
             fullScreenIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
             fullScreenIntent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP);
             fullScreenIntent.addFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
@@ -128,14 +150,14 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
                 flags |= PendingIntent.FLAG_IMMUTABLE;
             }
 
-            PendingIntent fullScreenPendingIntent = PendingIntent.getActivity(this, 0, fullScreenIntent, flags);
+            PendingIntent fullScreenPendingIntent = PendingIntent.getActivity(context, 0, fullScreenIntent, flags);
 
             Uri soundUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_RINGTONE);
 
             String userName = data.get("user");
             if (userName == null || userName.isEmpty()) userName = "Pasajero";
 
-            NotificationCompat.Builder builder = new NotificationCompat.Builder(this, CHANNEL_ID)
+            NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
                 .setSmallIcon(android.R.drawable.ic_menu_mylocation)
                 .setContentTitle("🚕 Nuevo Servicio")
                 .setContentText("Pasajero: " + userName)
@@ -147,9 +169,10 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
                 .setSound(soundUri)
                 .setVibrate(new long[]{0, 1000, 500, 1000, 500, 1000})
                 .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+                .setOnlyAlertOnce(update)
                 .setTimeoutAfter(30000);
 
-            NotificationManager notificationManager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
+            NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
             notificationManager.notify(NOTIFICATION_ID, builder.build());
 
             Log.d(TAG, "✅ Full Screen Intent enviado");
@@ -167,9 +190,8 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
     }
 
     // Manejar comunicados masivos con Alert en pantalla
-    private void handleBroadcastMessage(RemoteMessage remoteMessage) {
+    private void handleBroadcastMessage(Map<String, String> data) {
         try {
-            Map<String, String> data = remoteMessage.getData();
             String subject = data.get("subject");
             String message = data.get("message");
             
@@ -221,6 +243,7 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
     }
 
     private void handleTripCancellation(Map<String, String> data) {
+        Log.d(TAG, "❌ Viaje cancelado por el usuario");
         TripDataStore.clear(getApplicationContext());
         
         NotificationManager notificationManager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
@@ -244,7 +267,7 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
         return false;
     }
 
-    private void createNotificationChannel() {
+    private static void createNotificationChannel(Context context) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
             Uri soundUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_RINGTONE);
 
@@ -265,7 +288,7 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
             channel.setLockscreenVisibility(NotificationCompat.VISIBILITY_PUBLIC);
             channel.setBypassDnd(true);
 
-            NotificationManager notificationManager = getSystemService(NotificationManager.class);
+            NotificationManager notificationManager = context.getSystemService(NotificationManager.class);
             notificationManager.createNotificationChannel(channel);
         }
     }
@@ -275,7 +298,7 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
             String userName = data.get("userName");
             if (userName == null || userName.isEmpty()) userName = "El usuario";
 
-            createNotificationChannel();
+            createNotificationChannel(this);
 
             Intent intent = new Intent(this, MainActivity.class);
             intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP);
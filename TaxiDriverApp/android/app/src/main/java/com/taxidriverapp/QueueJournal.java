@@ -0,0 +1,285 @@
+package com.taxidriverapp;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Cola persistente de solo-agregar, en segmentos de archivo con CRC por registro.
+ * Reemplaza los arrays JSON que se reescribían completos en AsyncStorage en cada
+ * encolar/desencolar: aquí append y ack son O(1) y un proceso muerto a mitad de
+ * escritura solo pierde el registro incompleto (se detecta por CRC y se trunca).
+ *
+ * Formato de registro: [int largo][long seq][bytes payload][int crc32(seq+payload)]
+ * Los segmentos totalmente confirmados (ack) se borran; esa es la compactación.
+ */
+public class QueueJournal {
+    private static final String TAG = "QueueJournal";
+    private static final String SEGMENT_PREFIX = "seg-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String ACK_FILE = "ack";
+    private static final long MAX_SEGMENT_BYTES = 256 * 1024;
+    private static final int MAX_RECORD_BYTES = 1024 * 1024;
+
+    public static class Record {
+        public final long seq;
+        public final String data;
+
+        Record(long seq, String data) {
+            this.seq = seq;
+            this.data = data;
+        }
+    }
+
+    private static class Segment {
+        final File file;
+        final long firstSeq;
+        long lastSeq;
+
+        Segment(File file, long firstSeq) {
+            this.file = file;
+            this.firstSeq = firstSeq;
+            this.lastSeq = firstSeq - 1;
+        }
+    }
+
+    private final File dir;
+    private final ArrayDeque<Record> pending = new ArrayDeque<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private FileOutputStream currentOut;
+    private long currentBytes;
+    private long nextSeq = 1;
+    private long ackedSeq = 0;
+
+    public QueueJournal(File dir) throws IOException {
+        this.dir = dir;
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("No se pudo crear " + dir);
+        }
+        load();
+    }
+
+    public synchronized long append(String data) throws IOException {
+        byte[] payload = data.getBytes(StandardCharsets.UTF_8);
+        // load() descarta lo que pase de MAX_RECORD_BYTES: aceptarlo aquí perdería este registro y los siguientes
+        if (payload.length > MAX_RECORD_BYTES) {
+            throw new IOException("Registro de " + payload.length + " bytes, máximo " + MAX_RECORD_BYTES);
+        }
+        if (currentOut == null || currentBytes >= MAX_SEGMENT_BYTES) {
+            rollSegment();
+        }
+        long seq = nextSeq++;
+        byte[] record = encode(seq, payload);
+        // Un solo write() por registro: o llega completo o el CRC lo descarta al cargar
+        currentOut.write(record);
+        currentOut.flush();
+        currentBytes += record.length;
+
+        Segment current = segments.get(segments.size() - 1);
+        current.lastSeq = seq;
+        pending.addLast(new Record(seq, data));
+        return seq;
+    }
+
+    public synchronized List<Record> peek(int count) {
+        List<Record> result = new ArrayList<>(Math.min(count, pending.size()));
+        Iterator<Record> it = pending.iterator();
+        while (it.hasNext() && result.size() < count) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    /** Confirma todos los registros con seq <= upToSeq y borra los segmentos ya vacíos. */
+    public synchronized int ack(long upToSeq) throws IOException {
+        if (upToSeq <= ackedSeq) return 0;
+        int removed = 0;
+        while (!pending.isEmpty() && pending.peekFirst().seq <= upToSeq) {
+            pending.pollFirst();
+            removed++;
+        }
+        ackedSeq = Math.min(upToSeq, nextSeq - 1);
+        writeAck();
+        compact();
+        return removed;
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    public synchronized long sizeBytes() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.file.length();
+        }
+        return total;
+    }
+
+    public synchronized void clear() throws IOException {
+        ack(nextSeq - 1);
+    }
+
+    public synchronized void close() {
+        closeCurrent();
+    }
+
+    private void load() throws IOException {
+        ackedSeq = readAck();
+
+        File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) files = new File[0];
+        Arrays.sort(files, (a, b) -> Long.compare(segmentFirstSeq(a), segmentFirstSeq(b)));
+
+        long maxSeq = ackedSeq;
+        for (File file : files) {
+            // Un segmento vacío o truncado no aporta registros, pero su nombre ya está usado:
+            // el siguiente segmento debe empezar después, o compact() borraría el archivo vivo
+            maxSeq = Math.max(maxSeq, segmentFirstSeq(file));
+            Segment segment = new Segment(file, segmentFirstSeq(file));
+            long validBytes = readSegment(segment);
+            if (validBytes < file.length()) {
+                // Cola rota por muerte del proceso a mitad de escritura
+                Log.w(TAG, "⚠️ Truncando registro incompleto en " + file.getName());
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                    raf.setLength(validBytes);
+                }
+            }
+            segments.add(segment);
+            maxSeq = Math.max(maxSeq, segment.lastSeq);
+        }
+        nextSeq = maxSeq + 1;
+        compact();
+        Log.d(TAG, "📒 " + dir.getName() + ": " + pending.size() + " pendientes");
+    }
+
+    private long readSegment(Segment segment) throws IOException {
+        long validBytes = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0 || length > MAX_RECORD_BYTES) break;
+                byte[] payload = new byte[length];
+                long seq;
+                int crc;
+                try {
+                    seq = in.readLong();
+                    in.readFully(payload);
+                    crc = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (crc != checksum(seq, payload)) break;
+
+                validBytes += 4 + 8 + length + 4;
+                segment.lastSeq = seq;
+                if (seq > ackedSeq) {
+                    pending.addLast(new Record(seq, new String(payload, StandardCharsets.UTF_8)));
+                }
+            }
+        }
+        return validBytes;
+    }
+
+    private void rollSegment() throws IOException {
+        closeCurrent();
+        File file = new File(dir, SEGMENT_PREFIX + nextSeq + SEGMENT_SUFFIX);
+        // Nunca dos Segment para el mismo archivo
+        Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last == null || !last.file.equals(file)) {
+            segments.add(new Segment(file, nextSeq));
+        }
+        currentOut = new FileOutputStream(file, true);
+        currentBytes = file.length();
+    }
+
+    private void closeCurrent() {
+        if (currentOut == null) return;
+        try {
+            currentOut.close();
+        } catch (IOException ignored) {
+        }
+        currentOut = null;
+    }
+
+    private void compact() {
+        Iterator<Segment> it = segments.iterator();
+        while (it.hasNext()) {
+            Segment segment = it.next();
+            boolean isCurrent = currentOut != null && segment == segments.get(segments.size() - 1);
+            if (isCurrent || segment.lastSeq > ackedSeq) continue;
+            if (segment.file.delete() || !segment.file.exists()) {
+                it.remove();
+            }
+        }
+    }
+
+    private void writeAck() throws IOException {
+        File tmp = new File(dir, ACK_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+            out.writeLong(ackedSeq);
+        }
+        if (!tmp.renameTo(new File(dir, ACK_FILE))) {
+            throw new IOException("No se pudo guardar ack");
+        }
+    }
+
+    private long readAck() {
+        File file = new File(dir, ACK_FILE);
+        if (!file.exists()) return 0;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readLong();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long segmentFirstSeq(File file) {
+        String name = file.getName();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static byte[] encode(long seq, byte[] payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(payload.length);
+        out.writeLong(seq);
+        out.write(payload);
+        out.writeInt(checksum(seq, payload));
+        return bytes.toByteArray();
+    }
+
+    private static int checksum(long seq, byte[] payload) {
+        CRC32 crc = new CRC32();
+        for (int i = 7; i >= 0; i--) {
+            crc.update((int) (seq >>> (i * 8)) & 0xff);
+        }
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,104 @@
+package com.taxidriverapp;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class QueueJournalModule extends ReactContextBaseJavaModule {
+    private final Map<String, QueueJournal> journals = new HashMap<>();
+
+    public QueueJournalModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return "QueueJournal";
+    }
+
+    // Una carpeta por cola (syncQueue, pendingOfflineActions, ...)
+    private synchronized QueueJournal getJournal(String queue) throws IOException {
+        QueueJournal journal = journals.get(queue);
+        if (journal == null) {
+            File dir = new File(getReactApplicationContext().getFilesDir(), "journal/" + queue);
+            journal = new QueueJournal(dir);
+            journals.put(queue, journal);
+        }
+        return journal;
+    }
+
+    @ReactMethod
+    public void append(String queue, String data, Promise promise) {
+        try {
+            promise.resolve((double) getJournal(queue).append(data));
+        } catch (Exception e) {
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void peek(String queue, double count, Promise promise) {
+        try {
+            WritableArray records = Arguments.createArray();
+            for (QueueJournal.Record record : getJournal(queue).peek((int) count)) {
+                WritableMap item = Arguments.createMap();
+                item.putDouble("seq", record.seq);
+                item.putString("data", record.data);
+                records.pushMap(item);
+            }
+            promise.resolve(records);
+        } catch (Exception e) {
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void ack(String queue, double upToSeq, Promise promise) {
+        try {
+            promise.resolve(getJournal(queue).ack((long) upToSeq));
+        } catch (Exception e) {
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void size(String queue, Promise promise) {
+        try {
+            QueueJournal journal = getJournal(queue);
+            WritableMap size = Arguments.createMap();
+            size.putInt("count", journal.size());
+            size.putDouble("bytes", journal.sizeBytes());
+            promise.resolve(size);
+        } catch (Exception e) {
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void clear(String queue, Promise promise) {
+        try {
+            getJournal(queue).clear();
+            promise.resolve(true);
+        } catch (Exception e) {
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void invalidate() {
+        for (QueueJournal journal : journals.values()) {
+            journal.close();
+        }
+        journals.clear();
+        super.invalidate();
+    }
+}
@@ -0,0 +1,62 @@
+package com.taxidriverapp;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.facebook.react.ReactApplication;
+import com.facebook.react.ReactHost;
+import com.facebook.react.ReactInstanceEventListener;
+import com.facebook.react.bridge.ReactContext;
+
+/**
+ * Arranca el ReactHost (carga y evaluación del bundle Hermes) en segundo plano mientras
+ * TripRequestActivity muestra la cuenta regresiva, para que al aceptar MainActivity
+ * solo tenga que adjuntar la superficie al runtime ya listo.
+ */
+public class ReactPrewarmer {
+    private static final String TAG = "ReactPrewarmer";
+
+    private static boolean started = false;
+
+    public static void prewarm(Context context) {
+        Context appContext = context.getApplicationContext();
+        if (!(appContext instanceof ReactApplication)) return;
+
+        // ReactHost.start() y los listeners deben registrarse desde el hilo principal
+        new Handler(Looper.getMainLooper()).post(() -> startOnMainThread((ReactApplication) appContext));
+    }
+
+    private static synchronized void startOnMainThread(ReactApplication application) {
+        try {
+            ReactHost reactHost = application.getReactHost();
+            if (reactHost == null) return;
+
+            if (reactHost.getCurrentReactContext() != null) {
+                Log.d(TAG, "♨️ React ya estaba inicializado");
+                StartupMarkers.mark(StartupMarkers.REACT_READY);
+                return;
+            }
+            if (started) return;
+            started = true;
+
+            StartupMarkers.mark(StartupMarkers.PREWARM_START);
+            Log.d(TAG, "🔥 Pre-calentando React en segundo plano");
+
+            reactHost.addReactInstanceEventListener(new ReactInstanceEventListener() {
+                @Override
+                public void onReactContextInitialized(ReactContext reactContext) {
+                    reactHost.removeReactInstanceEventListener(this);
+                    started = false;
+                    StartupMarkers.mark(StartupMarkers.REACT_READY);
+                    Log.d(TAG, "✅ React listo antes de aceptar");
+                }
+            });
+            reactHost.start();
+        } catch (Exception e) {
+            started = false;
+            Log.e(TAG, "❌ Error pre-calentando React: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.taxidriverapp;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.facebook.react.bridge.ReactMarker;
+import com.facebook.react.bridge.ReactMarkerConstants;
+import com.reactnativecommunity.asyncstorage.AsyncStoragePrefetch;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Marcadores de tiempo del arranque de React Native desde que llega una oferta de viaje.
+ * Los tiempos se guardan en ms relativos a "offer_received" para comparar el arranque
+ * con y sin pre-calentamiento.
+ */
+public class StartupMarkers {
+    private static final String TAG = "StartupMarkers";
+
+    public static final String OFFER_RECEIVED = "offer_received";
+    public static final String PREWARM_START = "prewarm_start";
+    public static final String BUNDLE_START = "js_bundle_start";
+    public static final String BUNDLE_END = "js_bundle_end";
+    public static final String REACT_READY = "react_context_ready";
+    public static final String TRIP_ACCEPTED = "trip_accepted";
+    public static final String MAIN_ACTIVITY_CREATED = "main_activity_created";
+    public static final String CONTENT_APPEARED = "content_appeared";
+    public static final String PENDING_TRIP_READ = "pending_trip_read";
+    public static final String STORAGE_PREFETCHED = "storage_prefetched";
+    public static final String STORAGE_FIRST_READ = "storage_first_read";
+    // Duración (no marca): lo que la precarga le quitó a la primera lectura de AsyncStorage
+    public static final String STORAGE_SAVED_MS = "storage_saved_ms";
+
+    private static final Map<String, Long> markers = new LinkedHashMap<>();
+    private static long originMs = 0;
+    private static boolean listenerInstalled = false;
+
+    // Escuchar los marcadores internos de React Native (carga del bundle y primer render)
+    public static synchronized void install() {
+        if (listenerInstalled) return;
+        listenerInstalled = true;
+        ReactMarker.addListener((name, tag, instanceKey) -> {
+            if (name == ReactMarkerConstants.RUN_JS_BUNDLE_START) {
+                mark(BUNDLE_START);
+            } else if (name == ReactMarkerConstants.RUN_JS_BUNDLE_END) {
+                mark(BUNDLE_END);
+            } else if (name == ReactMarkerConstants.CONTENT_APPEARED) {
+                mark(CONTENT_APPEARED);
+            }
+        });
+    }
+
+    // Reinicia la medición: cada oferta nueva empieza una sesión desde cero
+    public static synchronized void begin(String name) {
+        markers.clear();
+        originMs = SystemClock.elapsedRealtime();
+        markers.put(name, 0L);
+        Log.d(TAG, "⏱️ " + name + " +0ms");
+    }
+
+    public static synchronized void mark(String name) {
+        if (originMs == 0 || markers.containsKey(name)) return;
+        long elapsed = SystemClock.elapsedRealtime() - originMs;
+        markers.put(name, elapsed);
+        Log.d(TAG, "⏱️ " + name + " +" + elapsed + "ms");
+    }
+
+    public static synchronized void record(String name, long valueMs) {
+        if (originMs == 0 || markers.containsKey(name)) return;
+        markers.put(name, valueMs);
+        Log.d(TAG, "⏱️ " + name + " = " + valueMs + "ms");
+    }
+
+    // Precarga de claves de AsyncStorage mientras carga el bundle (ver MainApplication)
+    public static AsyncStoragePrefetch.Listener storagePrefetchListener() {
+        return new AsyncStoragePrefetch.Listener() {
+            @Override
+            public void onPrefetched(int keys, long elapsedMs) {
+                Log.d(TAG, "📦 AsyncStorage precargado: " + keys + " claves en " + elapsedMs + "ms");
+                mark(STORAGE_PREFETCHED);
+            }
+
+            @Override
+            public void onServed(int hits, long savedMs) {
+                Log.d(TAG, "📦 Primera lectura desde la precarga: " + hits + " claves, " + savedMs + "ms ahorrados");
+                mark(STORAGE_FIRST_READ);
+                record(STORAGE_SAVED_MS, savedMs);
+            }
+        };
+    }
+
+    public static synchronized Map<String, Long> snapshot() {
+        return new LinkedHashMap<>(markers);
+    }
+}
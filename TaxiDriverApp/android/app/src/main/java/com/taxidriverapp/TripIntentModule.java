@@ -10,6 +10,8 @@ import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.Arguments;
 
+import java.util.Map;
+
 public class TripIntentModule extends ReactContextBaseJavaModule {
     private static final String PREFS_NAME = "TripIntentPrefs";
 
@@ -31,6 +33,7 @@ public class TripIntentModule extends ReactContextBaseJavaModule {
             boolean hasPending = prefs.getBoolean("hasPendingTrip", false);
             
             if (hasPending) {
+                StartupMarkers.mark(StartupMarkers.PENDING_TRIP_READ);
                 WritableMap tripData = Arguments.createMap();
                 tripData.putString("tripId", prefs.getString("tripId", ""));
                 tripData.putString("user", prefs.getString("user", ""));
@@ -58,6 +61,20 @@ public class TripIntentModule extends ReactContextBaseJavaModule {
         }
     }
 
+    // Tiempos de arranque desde la última oferta recibida (ms relativos)
+    @ReactMethod
+    public void getStartupMarkers(Promise promise) {
+        try {
+            WritableMap markers = Arguments.createMap();
+            for (Map.Entry<String, Long> entry : StartupMarkers.snapshot().entrySet()) {
+                markers.putDouble(entry.getKey(), entry.getValue());
+            }
+            promise.resolve(markers);
+        } catch (Exception e) {
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
     // Método estático para guardar desde TripRequestActivity
     public static void savePendingTrip(Context context, String tripId, String user, 
             String phone, String pickup, String destination, String estimatedPrice,
@@ -55,6 +55,7 @@ public class TripRequestActivity extends Activity {
         createUI();
         startVibration();
         startCountdown();
+        ReactPrewarmer.prewarm(this);
 
         Log.d(TAG, "✅ TripRequestActivity iniciada");
     }
@@ -291,6 +292,7 @@ public class TripRequestActivity extends Activity {
 
     private void acceptTrip() {
         Log.d(TAG, "✅ Viaje aceptado: " + tripId);
+        StartupMarkers.mark(StartupMarkers.TRIP_ACCEPTED);
         cleanup();
 
         TripIntentModule.savePendingTrip(
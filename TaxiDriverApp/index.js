@@ -5,9 +5,13 @@ import { AppRegistry, NativeModules, Platform } from 'react-native';
 import messaging from '@react-native-firebase/messaging';
 import AsyncStorage from '@react-native-async-storage/async-storage';
 import notifee, { AndroidImportance, AndroidVisibility } from '@notifee/react-native';
+import NetInfo from '@react-native-community/netinfo';
 import App from './App';
 import { name as appName } from './app.json';
 
+// Agrupar ráfagas de cambios de red (túneles, cambio de antena) en un solo evento
+NetInfo.configure({ eventSettleTimeout: 750 });
+
 const { BringToForeground } = NativeModules;
 
 // Solicitar permiso en iOS
@@ -0,0 +1,79 @@
+import AsyncStorage from '@react-native-async-storage/async-storage';
+
+// Benchmark de AsyncStorage: latencia de lecturas mientras otra tarea escribe lotes grandes
+// (como la cola offline). Para comparar antes/después, compilar una vez con
+// AsyncStorage_readerThreads=0 en android/gradle.properties (todo en el executor serie)
+// y otra con el pool de lectores, y llamar runStorageBenchmark() desde una pantalla de debug.
+// En ambas compilaciones hay que poner AsyncStorage_writeBehindCache=false: con la cache
+// write-behind las lecturas se sirven de memoria y las escrituras no llegan a SQLite hasta el
+// flush, así que no se mediría ni el pool de lectores ni el WAL.
+
+const PREFIJO = 'bench:';
+
+const percentil = (ordenados, p) => {
+  if (ordenados.length === 0) return 0;
+  const idx = Math.min(ordenados.length - 1, Math.ceil((p / 100) * ordenados.length) - 1);
+  return ordenados[Math.max(0, idx)];
+};
+
+const valor = (tamano, semilla) => {
+  const base = `${semilla}-`;
+  return base.repeat(Math.ceil(tamano / base.length)).slice(0, tamano);
+};
+
+export async function runStorageBenchmark({
+  lecturas = 300,
+  lotesEscritura = 20,
+  tamanoLote = 500,
+  tamanoValor = 512,
+} = {}) {
+  if (await AsyncStorage.getCacheStats()) {
+    throw new Error(
+      'runStorageBenchmark mide SQLite: compilar con AsyncStorage_writeBehindCache=false',
+    );
+  }
+
+  // Claves de lectura sembradas antes de medir; sin cache cada getItem va a SQLite
+  const clavesLectura = Array.from({ length: lecturas }, (_, i) => `${PREFIJO}read:${i}`);
+  await AsyncStorage.multiSet(clavesLectura.map((k, i) => [k, valor(tamanoValor, i)]));
+
+  let escribiendo = true;
+  let lotesEscritos = 0;
+  const escritor = (async () => {
+    for (let lote = 0; lote < lotesEscritura; lote++) {
+      const pares = Array.from({ length: tamanoLote }, (_, i) => [
+        `${PREFIJO}queue:${lote}:${i}`,
+        valor(tamanoValor, lote * tamanoLote + i),
+      ]);
+      await AsyncStorage.multiSet(pares);
+      lotesEscritos++;
+    }
+    escribiendo = false;
+  })();
+
+  const tiempos = [];
+  let lecturasConCarga = 0;
+  for (const clave of clavesLectura) {
+    const inicio = Date.now();
+    await AsyncStorage.getItem(clave);
+    tiempos.push(Date.now() - inicio);
+    if (escribiendo) lecturasConCarga++;
+  }
+  await escritor;
+
+  await AsyncStorage.removePrefix(PREFIJO);
+
+  const ordenados = [...tiempos].sort((a, b) => a - b);
+  const resultado = {
+    lecturas: tiempos.length,
+    lecturasConCarga,
+    lotesEscritos,
+    filasEscritas: lotesEscritos * tamanoLote,
+    p50: percentil(ordenados, 50),
+    p95: percentil(ordenados, 95),
+    p99: percentil(ordenados, 99),
+    max: ordenados[ordenados.length - 1] || 0,
+  };
+  console.log('📊 Benchmark AsyncStorage:', JSON.stringify(resultado));
+  return resultado;
+}
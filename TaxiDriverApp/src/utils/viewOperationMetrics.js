@@ -0,0 +1,105 @@
+import { Platform, UIManager } from 'react-native';
+
+// Métricas de lotes de operaciones de vista del UIManager (arquitectura antigua, Android).
+// Cada cambio de pantalla cierra la ventana anterior: se leen los contadores con reset y se
+// guardan con el nombre de la pantalla, así se ve en qué pantalla hubo frames tardíos o perdidos.
+
+/**
+ * @typedef {Object} DuracionMs
+ * @property {number} avg
+ * @property {number} max
+ * @property {number[]} histogram Conteos por cubeta de histogramBoundsMs (la última: por encima)
+ */
+
+/**
+ * @typedef {Object} ViewOperationMetrics
+ * @property {boolean} enabled
+ * @property {number} sampleEvery
+ * @property {number} sinceMs
+ * @property {number} batches
+ * @property {number} operations
+ * @property {number} avgOperationsPerBatch
+ * @property {number} maxOperationsPerBatch
+ * @property {Object<string, number>} operationsByType
+ * @property {number[]} histogramBoundsMs
+ * @property {DuracionMs} dispatchMs
+ * @property {DuracionMs} runMs
+ * @property {number} frames
+ * @property {number} lateFrames
+ * @property {number} droppedFrames
+ * @property {{size: number, hits: number, misses: number, prewarmed: number}} yogaNodePool
+ *   Contadores del pool de nodos Yoga desde que arrancó el proceso (yogaNodePoolWarmup)
+ */
+
+/**
+ * @typedef {Object} MetricasPantalla
+ * @property {string} pantalla
+ * @property {number} desde Date.now() al entrar en la pantalla
+ * @property {ViewOperationMetrics} metricas
+ */
+
+const MAX_VENTANAS = 50;
+
+const ventanas = [];
+let pantallaActual = null;
+let desde = 0;
+let activas = false;
+
+/** True si el UIManager nativo expone las métricas (ReactAndroid compilado desde fuente). */
+export const viewOperationMetricsDisponibles = () =>
+  Platform.OS === 'android' &&
+  typeof UIManager.setViewOperationMetricsEnabled === 'function' &&
+  typeof UIManager.getViewOperationMetrics === 'function';
+
+/**
+ * Activa el muestreo: se cuenta un lote de cada sampleEvery.
+ * @param {number} [sampleEvery]
+ */
+export function startViewOperationMetrics(sampleEvery = 1) {
+  if (!viewOperationMetricsDisponibles()) return false;
+  UIManager.setViewOperationMetricsEnabled(true, sampleEvery);
+  activas = true;
+  return true;
+}
+
+export function stopViewOperationMetrics() {
+  if (!activas) return;
+  UIManager.setViewOperationMetricsEnabled(false, 0);
+  activas = false;
+}
+
+/**
+ * Cierra la ventana de la pantalla anterior y empieza la de `pantalla`.
+ * @param {string} pantalla
+ * @returns {Promise<MetricasPantalla | null>} La ventana cerrada, si había una
+ */
+export async function markScreen(pantalla) {
+  if (!activas || pantalla === pantallaActual) return null;
+  const anterior = pantallaActual;
+  const inicio = desde;
+  pantallaActual = pantalla;
+  desde = Date.now();
+
+  let metricas;
+  try {
+    metricas = await UIManager.getViewOperationMetrics(true);
+  } catch (error) {
+    console.log('⚠️ Error leyendo métricas de vistas:', error?.message);
+    return null;
+  }
+  if (anterior == null) return null;
+
+  const ventana = { pantalla: anterior, desde: inicio, metricas };
+  ventanas.push(ventana);
+  if (ventanas.length > MAX_VENTANAS) ventanas.shift();
+  if (metricas.lateFrames > 0 || metricas.droppedFrames > 0) {
+    console.log(
+      `🐢 Jank en ${anterior}: ${metricas.lateFrames} frames tardíos, ` +
+        `${metricas.droppedFrames} perdidos, lote máx ${metricas.runMs.max.toFixed(1)} ms`,
+    );
+  }
+  return ventana;
+}
+
+/** Últimas ventanas cerradas, de la más antigua a la más reciente. */
+export const getScreenMetrics = () => [...ventanas];
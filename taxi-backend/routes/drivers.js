@@ -2,6 +2,7 @@ const express = require('express');
 const router = express.Router();
 const bcrypt = require('bcryptjs');
 const jwt = require('jsonwebtoken');
+const crypto = require('crypto');
 const { db } = require('../config/database');
 
 // REGISTRO DE CONDUCTOR
@@ -408,6 +409,105 @@ router.get('/:id/status', async (req, res) => {
     }
 });
 
+// Auto-levantar suspensiones temporales expiradas y, si el conductor quedó
+// suspendido sin ninguna activa, ponerlo offline
+async function liftExpiredSuspensions(driverId) {
+    await db.query(
+        `UPDATE driver_suspensions SET status = 'expired' 
+         WHERE driver_id = $1 AND status = 'active' AND type = 'temporal' AND expires_at < NOW()`,
+        [driverId]
+    );
+
+    const driverResult = await db.query(`SELECT status FROM drivers WHERE id = $1`, [driverId]);
+    if (driverResult.rows.length > 0 && driverResult.rows[0].status === 'suspended') {
+        const activeSuspension = await db.query(
+            `SELECT id FROM driver_suspensions WHERE driver_id = $1 AND status = 'active' LIMIT 1`,
+            [driverId]
+        );
+        if (activeSuspension.rows.length === 0) {
+            await db.query(`UPDATE drivers SET status = 'offline' WHERE id = $1`, [driverId]);
+        }
+    }
+}
+
+// =============================================
+// SINCRONIZACIÓN CONSOLIDADA (app conductor)
+// Un solo request por tick reemplaza los polling de status, suspensión,
+// comunicados y chat. Responde 304 si nada cambió desde el ETag enviado.
+// =============================================
+router.get('/:id/sync', async (req, res) => {
+    try {
+        const { id } = req.params;
+        const { tripId } = req.query;
+
+        // Igual que /check-suspension: una suspensión temporal vencida no debe bloquear
+        await liftExpiredSuspensions(id);
+
+        const [statusResult, suspensionResult, communicationsResult, chatResult] = await Promise.all([
+            db.query('SELECT status FROM drivers WHERE id = $1', [id]),
+            db.query(
+                `SELECT type, reason, expires_at FROM driver_suspensions
+                 WHERE driver_id = $1 AND status = 'active'
+                 ORDER BY created_at DESC LIMIT 1`,
+                [id]
+            ),
+            db.query(
+                `SELECT c.id, c.type, c.subject, c.message, c.created_at
+                 FROM communications c
+                 WHERE c.id NOT IN (
+                     SELECT communication_id FROM communication_reads WHERE driver_id = $1
+                 )
+                 ORDER BY c.created_at DESC`,
+                [id]
+            ),
+            tripId
+                ? db.query(
+                    `SELECT COUNT(*) as count FROM trip_messages
+                     WHERE trip_id = $1 AND sender_type = 'user' AND is_read = false`,
+                    [tripId]
+                )
+                : Promise.resolve(null)
+        ]);
+
+        if (statusResult.rows.length === 0) {
+            return res.status(404).json({ error: 'Conductor no encontrado' });
+        }
+
+        const suspension = suspensionResult.rows[0];
+        const slices = {
+            status: { status: statusResult.rows[0].status },
+            suspension: suspension
+                ? {
+                    isSuspended: true,
+                    type: suspension.type === 'temporal' ? 'TEMPORARY' : 'PERMANENT',
+                    reason: suspension.reason,
+                    expiresAt: suspension.expires_at
+                }
+                : { isSuspended: false },
+            communications: {
+                count: communicationsResult.rows.length,
+                unread: communicationsResult.rows
+            },
+            chat: chatResult
+                ? { tripId: String(tripId), unread: parseInt(chatResult.rows[0].count) }
+                : null
+        };
+
+        const body = JSON.stringify({ success: true, slices });
+        const etag = '"' + crypto.createHash('sha1').update(body).digest('hex') + '"';
+        res.set('ETag', etag);
+        res.set('Cache-Control', 'no-cache');
+
+        if (req.get('If-None-Match') === etag) {
+            return res.status(304).end();
+        }
+        res.type('application/json').send(body);
+    } catch (error) {
+        console.error('Error en sync del conductor:', error);
+        res.status(500).json({ error: 'Error sincronizando' });
+    }
+});
+
 router.get('/:id/location', async (req, res) => {
     try {
         const { id } = req.params;
@@ -445,24 +545,7 @@ router.get('/check-suspension/:driverId', async (req, res) => {
     try {
         const { driverId } = req.params;
 
-        // Primero, auto-levantar suspensiones expiradas
-        await db.query(
-            `UPDATE driver_suspensions SET status = 'expired' 
-             WHERE driver_id = $1 AND status = 'active' AND type = 'temporal' AND expires_at < NOW()`,
-            [driverId]
-        );
-
-        // Si el conductor estaba suspendido pero ya expiró, ponerlo offline
-        const driverResult = await db.query(`SELECT status FROM drivers WHERE id = $1`, [driverId]);
-        if (driverResult.rows.length > 0 && driverResult.rows[0].status === 'suspended') {
-            const activeSuspension = await db.query(
-                `SELECT id FROM driver_suspensions WHERE driver_id = $1 AND status = 'active' LIMIT 1`,
-                [driverId]
-            );
-            if (activeSuspension.rows.length === 0) {
-                await db.query(`UPDATE drivers SET status = 'offline' WHERE id = $1`, [driverId]);
-            }
-        }
+        await liftExpiredSuspensions(driverId);
 
         // Buscar suspensión activa
         const suspensionResult = await db.query(
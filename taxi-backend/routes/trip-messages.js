@@ -72,6 +72,7 @@ router.post('/send', async (req, res) => {
             data: {
               type: 'NEW_CHAT_MESSAGE',
               tripId: trip_id.toString(),
+              messageId: result.rows[0].id.toString(),
               message: message,
               senderType: 'driver'
             },
@@ -119,7 +120,7 @@ router.post('/send-voice', uploadAudio.single('audio'), async (req, res) => {
           const admin = require('firebase-admin');
           await admin.messaging().send({
             token: tripResult.rows[0].fcm_token,
-            data: { type: 'NEW_CHAT_MESSAGE', tripId: trip_id.toString(), message: '🎤 Nota de voz', senderType: 'driver' },
+            data: { type: 'NEW_CHAT_MESSAGE', tripId: trip_id.toString(), messageId: result.rows[0].id.toString(), message: '🎤 Nota de voz', senderType: 'driver' },
             android: { priority: 'high' }
           });
           console.log('✅ Notificación de nota de voz enviada al usuario');
@@ -141,14 +141,13 @@ async function notifyDriversInRadius(tripId, pickupCoords, radius, notifiedDrive
             if (global.io && global.connectedDrivers) {
                 const wsDriver = global.connectedDrivers.get(String(driver.id));
                 if (wsDriver) {
+                    // Mismos datos que el push (coordenadas, teléfono, pago): la app nativa
+                    // puede mostrar la oferta solo con lo que llega por el socket
                     global.io.to(`driver-${driver.id}`).emit('new_trip_request', {
+                        ...message.data,
                         tripId: tripId,
                         type: 'NEW_TRIP_REQUEST',
-                        user: userData.name || 'Usuario',
-                        pickup: tripData.pickup_location,
-                        destination: tripData.destination,
-                        price: tripData.estimated_price || 0,
-                        distance: driver.distance.toFixed(2)
+                        price: tripData.estimated_price || 0
                     });
                     console.log(`📡 WebSocket enviado a ${driver.name}`);
                 }